@@ -1,10 +1,15 @@
 package BusinessLogicLayer;
 
+import Connection.ConnectionFactory;
 import DataAccessLayer.ClientDAO;
+import DataAccessLayer.SalesDailyDAO;
 import Model.Client;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * The {@code ClientBLL} class represents the business logic layer for handling operations
@@ -15,7 +20,10 @@ import java.util.List;
 
 public class ClientBLL {
 
+    private static final Logger LOGGER = Logger.getLogger(ClientBLL.class.getName());
+
     private  final ClientDAO clientDAO = new ClientDAO();
+    private final SalesDailyDAO salesDailyDAO = new SalesDailyDAO();
 
     /**
      * Validates the {@link Client} object to ensure it meets business constraints.
@@ -39,36 +47,67 @@ public class ClientBLL {
      * Inserts a new client into the database after validation.
      *
      * @param client the {@link Client} to insert
-     * @return the inserted client with potentially updated fields (e.g., ID)
+     * @return the insertion, carrying the inserted client with its generated ID
      * @throws IllegalArgumentException if the client is invalid
+     * @throws RuntimeException         if the client could not be stored
      */
 
-    public Client insertClient(Client client) {
+    public EntityChange<Client> insertClient(Client client) {
         validateClient(client);
-        return clientDAO.insert(client);
+        clientDAO.insert(client);
+        if (client.getId() <= 0)
+            throw new RuntimeException("Error inserting client " + client.getName());
+        return EntityChange.inserted(client.getId(), client);
     }
 
     /**
      * Updates an existing client in the database after validation.
+     * The client is then read back by ID, so the returned change reflects what was actually stored.
      *
      * @param client the {@link Client} to update
-     * @return the updated client
+     * @return the update carrying the stored client, or a deletion if the client no longer exists
      * @throws IllegalArgumentException if the client is invalid
+     * @throws RuntimeException         if a database error occurs
      */
 
-    public Client updateClient(Client client) {
+    public EntityChange<Client> updateClient(Client client) {
         validateClient(client);
-        return clientDAO.update(client);
+        try (Connection connection = ConnectionFactory.getConnection()) {
+            if (clientDAO.update(connection, client) == 0) {
+                return EntityChange.deleted(client.getId());
+            }
+            Client stored = clientDAO.findById(connection, client.getId());
+            return stored != null ? EntityChange.updated(stored.getId(), stored) : EntityChange.deleted(client.getId());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error updating client: " + e.getMessage(), e);
+        }
     }
 
     /**
-     * Deletes a client from the database by ID.
+     * Deletes a client from the database by ID. Its orders are deleted by the foreign key cascade;
+     * in the same transaction its rows are removed from the daily sales rollup.
      *
      * @param id the ID of the client to delete
+     * @return the deletion; a client that no longer exists is reported as deleted as well
+     * @throws RuntimeException if a database error occurs
      */
 
-    public void deleteClient(int id) {
-        clientDAO.delete(id);
+    public EntityChange<Client> deleteClient(int id) {
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            salesDailyDAO.removeClient(connection, id);
+            clientDAO.delete(connection, id);
+            connection.commit();
+            clientDAO.invalidate(id);
+            return EntityChange.deleted(id);
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new RuntimeException("Error deleting client: " + e.getMessage(), e);
+        } finally {
+            ConnectionFactory.close(connection);
+        }
     }
 
     /**
@@ -81,4 +120,14 @@ public class ClientBLL {
     public List<Client> findAllClients() throws SQLException {
         return clientDAO.findAll();
     }
+
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "ClientBLL:rollback " + e.getMessage());
+            }
+        }
+    }
 }
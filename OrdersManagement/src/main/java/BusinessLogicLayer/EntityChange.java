@@ -0,0 +1,60 @@
+package BusinessLogicLayer;
+
+/**
+ * Describes a single write made through a BLL class, so the user interface can apply it to a table row
+ * instead of reloading the whole table.
+ *
+ * @param type   what happened to the entity
+ * @param id     the ID of the affected entity
+ * @param entity the entity as stored in the database, or {@code null} for {@link Type#DELETED}
+ * @param <T>    the entity type
+ */
+public record EntityChange<T>(Type type, int id, T entity) {
+
+    /**
+     * The kind of write.
+     */
+    public enum Type {
+        /** A new entity was stored. */
+        INSERTED,
+        /** An existing entity was changed. */
+        UPDATED,
+        /** An entity was removed, or no longer exists. */
+        DELETED
+    }
+
+    /**
+     * Creates the change for a newly stored entity.
+     *
+     * @param id     the generated ID
+     * @param entity the stored entity
+     * @param <T>    the entity type
+     * @return the change
+     */
+    public static <T> EntityChange<T> inserted(int id, T entity) {
+        return new EntityChange<>(Type.INSERTED, id, entity);
+    }
+
+    /**
+     * Creates the change for an updated entity.
+     *
+     * @param id     the entity ID
+     * @param entity the entity as stored after the update
+     * @param <T>    the entity type
+     * @return the change
+     */
+    public static <T> EntityChange<T> updated(int id, T entity) {
+        return new EntityChange<>(Type.UPDATED, id, entity);
+    }
+
+    /**
+     * Creates the change for a removed entity.
+     *
+     * @param id  the ID of the removed entity
+     * @param <T> the entity type
+     * @return the change
+     */
+    public static <T> EntityChange<T> deleted(int id) {
+        return new EntityChange<>(Type.DELETED, id, null);
+    }
+}
@@ -0,0 +1,87 @@
+package BusinessLogicLayer;
+
+import DataAccessLayer.LogDAO;
+import DataAccessLayer.OrderItemViewDAO;
+import Export.ExportColumn;
+import Export.ExportFormat;
+import Export.Exporter;
+import Model.Bill;
+import Model.OrderItemView;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The {@code ExportBLL} class exports the bill log and the order history to files for accounting.
+ * <p>
+ * Rows are streamed from a server-side cursor straight into an {@link Export.ExportWriter}, so an export
+ * never holds the table in memory. Both exports can be limited to a range of order dates.
+ */
+public class ExportBLL {
+
+    private static final List<ExportColumn<Bill>> BILL_COLUMNS = List.of(
+            ExportColumn.ofInt("id", Bill::id),
+            ExportColumn.ofInt("orderId", Bill::orderId),
+            ExportColumn.ofInt("clientId", Bill::clientId),
+            ExportColumn.ofText("clientName", Bill::clientName),
+            ExportColumn.ofDate("orderData", Bill::orderData),
+            ExportColumn.ofMoney("totalAmount", Bill::totalAmount));
+
+    private static final List<ExportColumn<OrderItemView>> ORDER_ITEM_COLUMNS = List.of(
+            ExportColumn.ofInt("orderId", OrderItemView::getOrderId),
+            ExportColumn.ofText("productName", OrderItemView::getProductName),
+            ExportColumn.ofInt("quantity", OrderItemView::getQuantity),
+            ExportColumn.ofMoney("price", OrderItemView::getPrice),
+            ExportColumn.ofMoney("totalPrice", OrderItemView::getTotalPrice));
+
+    private final LogDAO logDAO = new LogDAO();
+    private final OrderItemViewDAO orderItemViewDAO = new OrderItemViewDAO();
+
+    /**
+     * Exports the bills whose order date lies in {@code [from, to)}.
+     *
+     * @param path   the output file
+     * @param format the file format
+     * @param gzip   whether to gzip-compress the output
+     * @param from   the inclusive start of the range, or {@code null} for no lower bound
+     * @param to     the exclusive end of the range, or {@code null} for no upper bound
+     * @return the number of bills exported
+     * @throws IllegalArgumentException if the range is empty
+     * @throws IOException if the file cannot be written
+     */
+    public long exportBills(Path path, ExportFormat format, boolean gzip, Date from, Date to) throws IOException {
+        validateRange(from, to);
+        return Exporter.export(logDAO.streamBills(from, to), BILL_COLUMNS, path, format, gzip);
+    }
+
+    /**
+     * Exports the items of the orders whose order date lies in {@code [from, to)}.
+     *
+     * @param path   the output file
+     * @param format the file format
+     * @param gzip   whether to gzip-compress the output
+     * @param from   the inclusive start of the range, or {@code null} for no lower bound
+     * @param to     the exclusive end of the range, or {@code null} for no upper bound
+     * @return the number of order items exported
+     * @throws IllegalArgumentException if the range is empty
+     * @throws IOException if the file cannot be written
+     * @throws RuntimeException if a SQL error occurs
+     */
+    public long exportOrderHistory(Path path, ExportFormat format, boolean gzip, Date from, Date to) throws IOException {
+        validateRange(from, to);
+        try {
+            return Exporter.export(orderItemViewDAO.stream(from, to), ORDER_ITEM_COLUMNS, path, format, gzip);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming order history: " + e.getMessage(), e);
+        }
+    }
+
+    private static void validateRange(Date from, Date to) {
+        if (from != null && to != null && !from.before(to)) {
+            throw new IllegalArgumentException("The start date must be before the end date.");
+        }
+    }
+}
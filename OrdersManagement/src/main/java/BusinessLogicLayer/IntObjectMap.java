@@ -0,0 +1,163 @@
+package BusinessLogicLayer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A small open-addressing hash map from primitive {@code int} keys to non-null values.
+ * <p>
+ * Keys are stored in an {@code int[]} and probed linearly, so lookups neither box the key nor allocate.
+ * Removal uses backward-shift deletion, so there are no tombstones. The map is not thread-safe;
+ * {@link ProductCatalogCache} only mutates private copies and publishes them once complete.
+ *
+ * @param <V> the value type
+ */
+final class IntObjectMap<V> {
+
+    private static final int PHI = 0x9E3779B9;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Creates a map sized for {@code expectedSize} entries at a load factor of at most one half.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    IntObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private IntObjectMap(IntObjectMap<V> other) {
+        keys = Arrays.copyOf(other.keys, other.keys.length);
+        values = Arrays.copyOf(other.values, other.values.length);
+        size = other.size;
+        mask = other.mask;
+    }
+
+    /**
+     * Returns an independent copy of this map.
+     *
+     * @return the copy
+     */
+    IntObjectMap<V> copy() {
+        return new IntObjectMap<>(this);
+    }
+
+    /**
+     * Returns the value mapped to {@code key}, or {@code null}.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if absent
+     */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value, must not be {@code null}
+     */
+    void put(int key, V value) {
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    /**
+     * Removes the mapping of {@code key}, if present.
+     *
+     * @param key the key
+     */
+    void remove(int key) {
+        int i = slot(key);
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == null) {
+            return;
+        }
+        values[i] = null;
+        size--;
+
+        // shift the following entries of the cluster back so lookups never stop early
+        int gap = i;
+        for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                values[j] = null;
+                gap = j;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the values of all entries, in no particular order.
+     *
+     * @return a new list of the values
+     */
+    @SuppressWarnings("unchecked")
+    List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) {
+                result.add((V) value);
+            }
+        }
+        return result;
+    }
+
+    private int slot(int key) {
+        int h = key * PHI;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+}
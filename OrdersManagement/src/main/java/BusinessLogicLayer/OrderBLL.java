@@ -1,10 +1,15 @@
 package BusinessLogicLayer;
 
+import Connection.ConnectionFactory;
 import DataAccessLayer.OrdersDAO;
+import DataAccessLayer.SalesDailyDAO;
 import Model.Orders;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * The {@code OrderBLL} class represents the business logic layer for handling operations related to {@link Orders}.
@@ -13,7 +18,10 @@ import java.util.List;
  */
 public class OrderBLL {
 
+    private static final Logger LOGGER = Logger.getLogger(OrderBLL.class.getName());
+
     private final OrdersDAO ordersDAO = new OrdersDAO();
+    private final SalesDailyDAO salesDailyDAO = new SalesDailyDAO();
 
     /**
      * Inserts a new {@link Orders} object into the database after validating the client ID.
@@ -30,12 +38,28 @@ public class OrderBLL {
     }
 
     /**
-     * Deletes an {@link Orders} record from the database using its unique ID.
+     * Deletes an {@link Orders} record from the database using its unique ID. Its items are deleted by the
+     * foreign key cascade; in the same transaction they are subtracted from the daily sales rollup.
      *
      * @param id the ID of the order to be deleted
+     * @return the deletion
+     * @throws RuntimeException if a SQL error occurs
      */
-    public void deleteOrder(int id) {
-        ordersDAO.delete(id);
+    public EntityChange<Orders> deleteOrder(int id) {
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            salesDailyDAO.removeOrder(connection, id);
+            ordersDAO.delete(connection, id);
+            connection.commit();
+            return EntityChange.deleted(id);
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new RuntimeException("Error deleting order: " + e.getMessage(), e);
+        } finally {
+            ConnectionFactory.close(connection);
+        }
     }
 
     /**
@@ -47,4 +71,14 @@ public class OrderBLL {
     public List<Orders> findAllOrders() throws SQLException {
         return ordersDAO.findAll();
     }
+
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "OrderBLL:rollback " + e.getMessage());
+            }
+        }
+    }
 }
@@ -1,8 +1,14 @@
 package BusinessLogicLayer;
 
+import Connection.ConnectionFactory;
 import DataAccessLayer.OrderItemDAO;
+import DataAccessLayer.OrderItemViewDAO;
+import DataAccessLayer.PageIndex;
+import DataAccessLayer.SalesDailyDAO;
 import Model.OrderItem;
+import Model.OrderItemView;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -15,6 +21,8 @@ import java.util.List;
 public class OrderItemBLL {
 
     private final OrderItemDAO orderItemDAO = new OrderItemDAO();
+    private final OrderItemViewDAO orderItemViewDAO = new OrderItemViewDAO();
+    private final SalesDailyDAO salesDailyDAO = new SalesDailyDAO();
 
     /**
      * Validates the specified {@link OrderItem} to ensure it meets business constraints.
@@ -22,7 +30,7 @@ public class OrderItemBLL {
      * @param orderItem the {@code OrderItem} to validate
      * @throws IllegalArgumentException if the quantity is not positive or the price is negative
      */
-    private void validateItem(OrderItem orderItem) {
+    static void validateItem(OrderItem orderItem) {
         if (orderItem.getQuantity() <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than 0.");
         }
@@ -44,12 +52,44 @@ public class OrderItemBLL {
     }
 
     /**
-     * Deletes an {@link OrderItem} from the database using its unique identifier.
+     * Inserts several {@link OrderItem}s in one batch after validating each of them.
+     *
+     * @param orderItems the items to insert
+     * @return the inserted items, with their generated IDs set in input order
+     * @throws IllegalArgumentException if any item is invalid; nothing is inserted in that case
+     */
+    public List<OrderItem> insertOrderItems(List<OrderItem> orderItems) {
+        orderItems.forEach(OrderItemBLL::validateItem);
+        return orderItemDAO.insertAll(orderItems);
+    }
+
+    /**
+     * Deletes an {@link OrderItem} from the database using its unique identifier and subtracts it
+     * from the daily sales rollup in the same transaction.
      *
      * @param id the ID of the {@code OrderItem} to delete
+     * @throws RuntimeException if a SQL error occurs
      */
     public void deleteOrderItem(int id) {
-        orderItemDAO.delete(id);
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            salesDailyDAO.removeOrderItem(connection, id);
+            orderItemDAO.delete(connection, id);
+            connection.commit();
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+            }
+            throw new RuntimeException("Error deleting order item: " + e.getMessage(), e);
+        } finally {
+            ConnectionFactory.close(connection);
+        }
     }
 
     /**
@@ -61,4 +101,65 @@ public class OrderItemBLL {
     public List<OrderItem> findAllOrderItems() throws SQLException {
         return orderItemDAO.findAll();
     }
+
+    /**
+     * Retrieves all order items as {@link OrderItemView}s, with product names resolved by the database.
+     *
+     * @return the order item views of all orders
+     */
+    public List<OrderItemView> findAllOrderItemViews() {
+        return orderItemViewDAO.findAll();
+    }
+
+    /**
+     * Retrieves the items of one order as {@link OrderItemView}s.
+     *
+     * @param orderId the ID of the order
+     * @return the order item views of that order
+     */
+    public List<OrderItemView> findOrderItemViewsByOrder(int orderId) {
+        return orderItemViewDAO.findByOrderId(orderId);
+    }
+
+    /**
+     * Retrieves the items of all orders of one client as {@link OrderItemView}s.
+     *
+     * @param clientId the ID of the client
+     * @return the order item views of that client's orders
+     */
+    public List<OrderItemView> findOrderItemViewsByClient(int clientId) {
+        return orderItemViewDAO.findByClientId(clientId);
+    }
+
+    /**
+     * Retrieves the row count and page cursors of the order history, for paged display.
+     *
+     * @param pageSize the number of items per page
+     * @return the page index, or {@code null} if it could not be loaded
+     */
+    public PageIndex findOrderItemViewPageIndex(int pageSize) {
+        return orderItemViewDAO.findPageIndex(pageSize);
+    }
+
+    /**
+     * Extends a page index of the order history with the items added since it was built.
+     *
+     * @param pageSize the number of items per page
+     * @param previous the index to extend, or {@code null} to build a new one
+     * @return the page index, or {@code null} if it could not be loaded
+     */
+    public PageIndex findOrderItemViewPageIndex(int pageSize, PageIndex previous) {
+        return orderItemViewDAO.findPageIndex(pageSize, previous);
+    }
+
+    /**
+     * Retrieves one page of the order history as {@link OrderItemView}s.
+     *
+     * @param afterItemId the cursor of the page, taken from {@link #findOrderItemViewPageIndex(int)}
+     * @param limit       the maximum number of items
+     * @return the order item views of the page
+     */
+    public List<OrderItemView> findOrderItemViewPage(int afterItemId, int limit) {
+        return orderItemViewDAO.findPage(afterItemId, limit);
+    }
 }
@@ -0,0 +1,169 @@
+package BusinessLogicLayer;
+
+import Connection.ConnectionFactory;
+import DataAccessLayer.BillLogWriter;
+import DataAccessLayer.ClientDAO;
+import DataAccessLayer.OrderItemDAO;
+import DataAccessLayer.OrdersDAO;
+import DataAccessLayer.ProductDAO;
+import DataAccessLayer.SalesDailyDAO;
+import Model.Bill;
+import Model.Client;
+import Model.OrderItem;
+import Model.Orders;
+import Monitoring.OrderPlacementEvent;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code OrderPlacementService} places a complete order as a single unit of work.
+ * <p>
+ * The order header, all of its line items, the stock decrements and the {@code sales_daily} rollup rows
+ * are written on one pooled connection inside one transaction: either the whole order is stored, or nothing is. The billing log entry is handed
+ * to the {@link BillLogWriter} once the order has committed, so the log insert is not part of the
+ * latency of placing an order.
+ */
+public class OrderPlacementService {
+
+    private static final Logger LOGGER = Logger.getLogger(OrderPlacementService.class.getName());
+
+    private final ClientDAO clientDAO = new ClientDAO();
+    private final OrdersDAO ordersDAO = new OrdersDAO();
+    private final OrderItemDAO orderItemDAO = new OrderItemDAO();
+    private final ProductDAO productDAO = new ProductDAO();
+    private final SalesDailyDAO salesDailyDAO = new SalesDailyDAO();
+    private final BillLogWriter billLogWriter = BillLogWriter.getInstance();
+
+    /**
+     * Computes the total amount of a cart (the sum of price multiplied by quantity over all items).
+     *
+     * @param cart the items of the order
+     * @return the total amount
+     */
+    public static double computeTotal(List<OrderItem> cart) {
+        double total = 0;
+        for (OrderItem item : cart) {
+            total += item.getPrice() * item.getQuantity();
+        }
+        return total;
+    }
+
+    /**
+     * Places an order for a client in one transaction.
+     * <p>
+     * Stock is reserved first with guarded conditional updates, then the order header and the line items
+     * are written and added to the daily sales rollup. After the commit the bill is queued for the log. The cart items receive the generated order ID and their own generated IDs.
+     * If any product does not have enough stock, or any write fails, the transaction is rolled back and no part of the order is stored.
+     * The whole placement is recorded as an {@link OrderPlacementEvent} for Java Flight Recorder.
+     *
+     * @param clientId the ID of the client placing the order
+     * @param cart     the items to order
+     * @return the stored {@link Orders} with its ID and items set
+     * @throws IllegalArgumentException if the client does not exist, the cart is empty,
+     *                                  an item is invalid or the stock is insufficient
+     * @throws RuntimeException         if a SQL error occurs
+     */
+    public Orders placeOrder(int clientId, List<OrderItem> cart) {
+        OrderPlacementEvent event = OrderPlacementEvent.begin(clientId, cart.size());
+        try {
+            Orders order = placeInTransaction(clientId, cart);
+            event.placed(order.getId(), order.getTotalAmount());
+            return order;
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Validates the cart and stores the order, its items, the rollup and the bill; see {@link #placeOrder}.
+     */
+    private Orders placeInTransaction(int clientId, List<OrderItem> cart) {
+        if (clientId <= 0) {
+            throw new IllegalArgumentException("Client ID must be greater than 0.");
+        }
+        if (cart.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty.");
+        }
+        cart.forEach(OrderItemBLL::validateItem);
+
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+
+            long clientStamp = clientDAO.cacheStamp(clientId);
+            Client client = clientDAO.findById(connection, clientId);
+            if (client == null) {
+                throw new IllegalArgumentException("No client found with id " + clientId);
+            }
+
+            reserveStock(connection, cart);
+
+            double total = computeTotal(cart);
+            Orders order = ordersDAO.insert(connection, new Orders(clientId, new Date(), total));
+
+            for (OrderItem item : cart) {
+                item.setOrderId(order.getId());
+            }
+            orderItemDAO.insertAll(connection, cart);
+            salesDailyDAO.addOrder(connection, order.getOrderData(), clientId, cart);
+
+            connection.commit();
+            clientDAO.cacheCommitted(client, clientStamp);
+            billLogWriter.append(new Bill(0, order.getId(), clientId, client.getName(), order.getOrderData(), total));
+            ProductCatalogCache.getInstance().refresh(stockChanges(cart).keySet());
+            order.setItems(new ArrayList<>(cart));
+            return order;
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new RuntimeException("Error placing order: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            rollback(connection);
+            throw e;
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+    }
+
+    /**
+     * Reserves the ordered quantities of every product in the cart with guarded conditional updates,
+     * merging several lines of the same product.
+     *
+     * @throws IllegalArgumentException if a product does not exist or has insufficient stock
+     */
+    private void reserveStock(Connection connection, List<OrderItem> cart) throws SQLException {
+        List<Integer> failed = productDAO.reserveStock(connection, stockChanges(cart));
+        if (!failed.isEmpty()) {
+            throw new IllegalArgumentException("Insufficient stock for product(s) with id " + failed);
+        }
+    }
+
+    /**
+     * Returns the total ordered quantity per product ID.
+     */
+    private static Map<Integer, Integer> stockChanges(List<OrderItem> cart) {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : cart) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "OrderPlacementService:rollback " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package BusinessLogicLayer;
 
 import DataAccessLayer.ProductDAO;
+import DataAccessLayer.SalesDailyDAO;
 import Model.Product;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import static Connection.ConnectionFactory.close;
 import static Connection.ConnectionFactory.getConnection;
 
 /**
@@ -15,12 +20,17 @@ import static Connection.ConnectionFactory.getConnection;
  * for operations involving {@link Product} entities.
  *
  * <p>It interacts with the {@link ProductDAO} to perform CRUD operations on the database,
- * while also enforcing input validation before persisting or updating data.</p>
+ * while also enforcing input validation before persisting or updating data. Reads are served by the
+ * {@link ProductCatalogCache}, which every write made through this class updates.</p>
  */
 
 public class ProductBLL {
 
+    private static final Logger LOGGER = Logger.getLogger(ProductBLL.class.getName());
+
     private final ProductDAO productDAO = new ProductDAO();
+    private final SalesDailyDAO salesDailyDAO = new SalesDailyDAO();
+    private final ProductCatalogCache catalog = ProductCatalogCache.getInstance();
 
     /**
      * Validates the product data according to business rules.
@@ -43,74 +53,165 @@ public class ProductBLL {
      * Inserts a new {@link Product} into the database after validating its data.
      *
      * @param product the {@code Product} to insert
-     * @return the inserted {@code Product} object
+     * @return the insertion, carrying the inserted {@code Product} with its generated ID
+     * @throws RuntimeException if the product could not be stored
      */
 
-    public Product insertProduct(Product product) {
+    public EntityChange<Product> insertProduct(Product product) {
         validateProduct(product);
-        return productDAO.insert(product);
+        productDAO.insert(product);
+        if (product.getId() <= 0)
+            throw new RuntimeException("Error inserting product " + product.getName());
+        return EntityChange.inserted(product.getId(), writeThrough(product));
     }
 
     /**
-     * Updates an existing {@link Product} in the database with new values.
+     * Inserts several {@link Product}s in one batch after validating each of them.
      *
-     * @param product the {@code Product} containing updated values
-     * @return the updated {@code Product} if the update was successful
-     * @throws SQLException if the product does not exist or a database error occurs
+     * @param products the products to insert
+     * @return the inserted products, with their generated IDs set in input order
+     * @throws IllegalArgumentException if any product is invalid; nothing is inserted in that case
+     */
+
+    public List<Product> insertProducts(List<Product> products) {
+        products.forEach(this::validateProduct);
+        productDAO.insertAll(products);
+        catalog.refresh(products.stream().map(Product::getId).filter(id -> id > 0).toList());
+        return products;
+    }
+
+    /**
+     * Updates several {@link Product}s in one batch after validating each of them.
+     *
+     * @param products the products containing updated values
+     * @return the updated products
+     * @throws IllegalArgumentException if any product is invalid; nothing is updated in that case
      */
 
-    public Product updateProduct(Product product) {
-        String query = "UPDATE product SET name = ?, price = ?, stock = ? WHERE id = ?";
+    public List<Product> updateProducts(List<Product> products) {
+        products.forEach(this::validateProduct);
+        productDAO.updateAll(products);
+        catalog.refresh(products.stream().map(Product::getId).toList());
+        return products;
+    }
 
-        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, product.getName());
-            stmt.setDouble(2, product.getPrice());
-            stmt.setInt(3, product.getStock());
-            stmt.setInt(4, product.getId());
+    /**
+     * Updates an existing {@link Product} in the database with new values.
+     *
+     * @param product the {@code Product} containing updated values
+     * @return the update carrying the stored {@code Product}, or a deletion if no product has its ID
+     * @throws RuntimeException if a database error occurs
+     */
 
-            int rowsAffected = stmt.executeUpdate();
+    public EntityChange<Product> updateProduct(Product product) {
+        try (Connection conn = getConnection()) {
+            int rowsAffected = productDAO.update(conn, product);
 
             if (rowsAffected > 0) {
-                return product;
+                return EntityChange.updated(product.getId(), writeThrough(product));
             } else {
-                throw new SQLException("No product found with id " + product.getId());
+                catalog.remove(product.getId());
+                return EntityChange.deleted(product.getId());
             }
         } catch (SQLException e) {
-            System.out.println("Error updating product: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+            throw new RuntimeException("Error updating product: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Deletes a product from the database using its ID.
+     * Deletes a product from the database using its ID. Its order lines are deleted by the foreign key
+     * cascade; in the same transaction its rows are removed from the daily sales rollup.
      *
      * @param id the ID of the {@code Product} to delete
+     * @return the deletion; a product that no longer exists is reported as deleted as well
+     * @throws RuntimeException if a database error occurs; the product is then kept in the catalog
      */
 
-    public void deleteProduct(int id) {
-        productDAO.delete(id);
+    public EntityChange<Product> deleteProduct(int id) {
+        Connection conn = null;
+        try {
+            conn = getConnection();
+            conn.setAutoCommit(false);
+            salesDailyDAO.removeProduct(conn, id);
+            productDAO.delete(conn, id);
+            conn.commit();
+        } catch (SQLException e) {
+            rollback(conn);
+            throw new RuntimeException("Error deleting product: " + e.getMessage(), e);
+        } finally {
+            close(conn);
+        }
+        catalog.remove(id);
+        return EntityChange.deleted(id);
     }
 
     /**
-     * Retrieves all products from the database.
+     * Retrieves all products from the in-memory {@link ProductCatalogCache}, loading it from the database on first use.
      *
      * @return a {@code List} of all {@link Product} entities
      * @throws SQLException if a database error occurs
      */
 
     public List<Product> findAllProducts() throws SQLException {
-        return productDAO.findAll();
+        return catalog.findAll();
     }
 
     /**
-     * Finds a product in the database by its ID.
+     * Finds a product by its ID, from the catalog cache when possible.
      *
      * @param productId the ID of the {@code Product} to retrieve
      * @return the corresponding {@code Product}, or {@code null} if not found
      */
 
     public Product findProductById(int productId) {
-        return productDAO.findById(productId);
+        return catalog.findById(productId);
+    }
+
+    /**
+     * Finds the products whose name starts with the given prefix, ignoring case, from the catalog cache.
+     *
+     * @param prefix the name prefix
+     * @return the matching products, ordered by name
+     */
+
+    public List<Product> findProductsByNamePrefix(String prefix) {
+        return catalog.findByNamePrefix(prefix);
+    }
+
+    /**
+     * Finds several products by ID from the catalog cache; missing ones are loaded with batched
+     * {@code IN} queries instead of one query per ID.
+     *
+     * @param productIds the IDs of the products to retrieve
+     * @return the found products keyed by ID; IDs without a product are absent
+     * @throws SQLException if the products missing from the cache cannot be loaded
+     */
+
+    public Map<Integer, Product> findProductsByIds(Collection<Integer> productIds) throws SQLException {
+        return catalog.findByIds(productIds);
+    }
+
+    /**
+     * Stores a product that was successfully written to the database in the catalog cache.
+     *
+     * @param product the written product
+     * @return the same product
+     */
+
+    private Product writeThrough(Product product) {
+        if (product != null && product.getId() > 0) {
+            catalog.put(product);
+        }
+        return product;
+    }
+
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "ProductBLL:rollback " + e.getMessage());
+            }
+        }
     }
 }
@@ -0,0 +1,384 @@
+package BusinessLogicLayer;
+
+import DataAccessLayer.ProductDAO;
+import Model.Product;
+import Monitoring.CacheMXBean;
+import Monitoring.Metrics;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@code ProductCatalogCache} keeps the whole product catalog in memory so hot read paths
+ * (cart updates, order history, the product combo box) do not query MySQL.
+ * <p>
+ * The catalog is loaded on first use and kept up to date by {@link ProductBLL}, which writes every insert,
+ * update and delete through to it. Reads work on an immutable snapshot published through a volatile field,
+ * so lookups never lock: by ID through an {@code int}-keyed open-addressing map (O(1), no boxing), and by
+ * name prefix through binary search over the names sorted case-insensitively (O(log n)). Writes copy the
+ * snapshot, which is cheap for a catalog of this size.
+ * <p>
+ * Rows read from the database on a miss or by {@link #refresh(Collection)} may be older than a write that
+ * committed meanwhile. Every write bumps a version, and a read result is only applied if the version did
+ * not change while it was being read, so a stale row never overwrites a newer one.
+ *
+ * <p>Cached products are shared instances and must not be modified; build a new {@link Product}
+ * and pass it to {@link ProductBLL#updateProduct(Product)} instead.</p>
+ *
+ * <p>The shared cache publishes its size and hit/miss counters as
+ * {@code OrdersManagement:type=ProductCatalogCache} (see {@link CacheMXBean}).</p>
+ */
+public class ProductCatalogCache implements CacheMXBean {
+
+    private static final Logger LOGGER = Logger.getLogger(ProductCatalogCache.class.getName());
+    private static final int REFRESH_ATTEMPTS = 3;
+
+    private static final ProductCatalogCache singleInstance = new ProductCatalogCache(new ProductDAO());
+
+    static {
+        Metrics.register("type=ProductCatalogCache", singleInstance);
+    }
+
+    private static final Comparator<Product> BY_NAME =
+            Comparator.comparing((Product p) -> p.getName().toLowerCase(Locale.ROOT)).thenComparingInt(Product::getId);
+
+    private final ProductDAO productDAO;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Snapshot snapshot;
+    private long version;
+
+    /**
+     * Creates a cache that loads products through the given DAO.
+     *
+     * @param productDAO the DAO used on cache misses
+     */
+    ProductCatalogCache(ProductDAO productDAO) {
+        this.productDAO = productDAO;
+    }
+
+    /**
+     * Returns the application-wide catalog cache.
+     *
+     * @return the shared cache
+     */
+    public static ProductCatalogCache getInstance() {
+        return singleInstance;
+    }
+
+    /**
+     * Returns all products, ordered by ID.
+     *
+     * @return an unmodifiable list of all products
+     */
+    public List<Product> findAll() {
+        Snapshot current = loaded();
+        if (current == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(Arrays.asList(current.byId));
+    }
+
+    /**
+     * Returns the product with the given ID, loading it from the database on a miss.
+     *
+     * @param id the product ID
+     * @return the product, or {@code null} if it does not exist
+     */
+    public Product findById(int id) {
+        Snapshot current = loaded();
+        Product product = current != null ? current.index.get(id) : null;
+        if (product != null) {
+            hits.increment();
+            return product;
+        }
+        misses.increment();
+        long stamp = version();
+        product = productDAO.findById(id);
+        if (product != null) {
+            putIfUnchanged(List.of(product), stamp);
+        }
+        return product;
+    }
+
+    /**
+     * Returns the products with the given IDs, loading the missing ones with one batched query.
+     *
+     * @param ids the product IDs
+     * @return the found products keyed by ID, in the order of {@code ids}
+     * @throws SQLException if the missing products cannot be loaded
+     */
+    public Map<Integer, Product> findByIds(Collection<Integer> ids) throws SQLException {
+        Snapshot current = loaded();
+        Map<Integer, Product> found = new LinkedHashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int id : ids) {
+            Product product = current != null ? current.index.get(id) : null;
+            if (product != null) {
+                hits.increment();
+                found.put(id, product);
+            } else {
+                misses.increment();
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long stamp = version();
+            Map<Integer, Product> loadedProducts = productDAO.findByIds(missing);
+            putIfUnchanged(loadedProducts.values(), stamp);
+            Map<Integer, Product> ordered = new LinkedHashMap<>();
+            for (int id : ids) {
+                Product product = found.containsKey(id) ? found.get(id) : loadedProducts.get(id);
+                if (product != null) {
+                    ordered.put(id, product);
+                }
+            }
+            return ordered;
+        }
+        return found;
+    }
+
+    /**
+     * Returns the products whose name starts with {@code prefix}, ignoring case, ordered by name.
+     *
+     * @param prefix the name prefix
+     * @return the matching products
+     */
+    public List<Product> findByNamePrefix(String prefix) {
+        Snapshot current = loaded();
+        if (current == null) {
+            return List.of();
+        }
+        String key = prefix.toLowerCase(Locale.ROOT);
+        int low = 0;
+        int high = current.names.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.names[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<Product> result = new ArrayList<>();
+        for (int i = low; i < current.names.length && current.names[i].startsWith(key); i++) {
+            result.add(current.byName[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Adds or replaces a product after it was written to the database.
+     *
+     * @param product the stored product
+     */
+    public void put(Product product) {
+        putAll(List.of(product));
+    }
+
+    /**
+     * Adds or replaces several products after they were written to the database.
+     *
+     * @param products the stored products
+     */
+    public synchronized void putAll(Collection<Product> products) {
+        version++;
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        IntObjectMap<Product> index = current.index.copy();
+        for (Product product : products) {
+            if (product.getId() > 0) {
+                index.put(product.getId(), product);
+            }
+        }
+        snapshot = new Snapshot(index);
+    }
+
+    /**
+     * Removes a product after it was deleted from the database.
+     *
+     * @param id the ID of the deleted product
+     */
+    public synchronized void remove(int id) {
+        version++;
+        Snapshot current = snapshot;
+        if (current == null || current.index.get(id) == null) {
+            return;
+        }
+        IntObjectMap<Product> index = current.index.copy();
+        index.remove(id);
+        snapshot = new Snapshot(index);
+    }
+
+    /**
+     * Reloads the given products from the database, e.g. after their stock was changed by SQL
+     * that bypassed {@link ProductBLL}. Products that no longer exist are removed.
+     * If another write reaches the catalog while the products are read, the read is repeated; after a few
+     * attempts, or if the read fails, the products are dropped instead, so their next lookup loads them again.
+     * A failed read therefore never removes products as if they had been deleted, and never throws, since the
+     * caller has usually committed already.
+     *
+     * @param ids the IDs of the changed products
+     */
+    public void refresh(Collection<Integer> ids) {
+        if (snapshot == null || ids.isEmpty()) {
+            return;
+        }
+        for (int attempt = 0; attempt < REFRESH_ATTEMPTS; attempt++) {
+            long stamp = version();
+            Map<Integer, Product> reloaded;
+            try {
+                reloaded = productDAO.findByIds(ids);
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "ProductCatalogCache:refresh " + e.getMessage());
+                break;
+            }
+            synchronized (this) {
+                if (version == stamp) {
+                    putAll(reloaded.values());
+                    for (int id : ids) {
+                        if (!reloaded.containsKey(id)) {
+                            remove(id);
+                        }
+                    }
+                    return;
+                }
+            }
+        }
+        synchronized (this) {
+            ids.forEach(this::remove);
+        }
+    }
+
+    /**
+     * Drops the whole catalog; it is reloaded on next use.
+     */
+    public synchronized void clear() {
+        version++;
+        snapshot = null;
+    }
+
+    /**
+     * Returns the current write version, taken before reading rows from the database.
+     */
+    private synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Adds products read from the database on a miss, unless a write reached the catalog since {@code stamp}
+     * was taken or a product is already cached; the rows read may then be older than the cached ones.
+     */
+    private synchronized void putIfUnchanged(Collection<Product> products, long stamp) {
+        Snapshot current = snapshot;
+        if (current == null || version != stamp) {
+            return;
+        }
+        IntObjectMap<Product> index = null;
+        for (Product product : products) {
+            if (product.getId() > 0 && current.index.get(product.getId()) == null) {
+                if (index == null) {
+                    index = current.index.copy();
+                }
+                index.put(product.getId(), product);
+            }
+        }
+        if (index != null) {
+            snapshot = new Snapshot(index);
+        }
+    }
+
+    /**
+     * Returns the number of cached products, without loading the catalog.
+     *
+     * @return the size of the catalog, or 0 before it was loaded
+     */
+    @Override
+    public int getSize() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.byId.length;
+    }
+
+    /**
+     * Returns the number of lookups answered from memory.
+     *
+     * @return the hit count
+     */
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to query the database.
+     *
+     * @return the miss count
+     */
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the current snapshot, loading the catalog on first use.
+     *
+     * @return the snapshot, or {@code null} if the catalog could not be loaded
+     */
+    private Snapshot loaded() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                try {
+                    List<Product> products = productDAO.findAll();
+                    if (products != null) {
+                        IntObjectMap<Product> index = new IntObjectMap<>(products.size());
+                        products.forEach(p -> index.put(p.getId(), p));
+                        snapshot = new Snapshot(index);
+                    }
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "ProductCatalogCache:load " + e.getMessage());
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * An immutable view of the catalog: the ID index plus arrays sorted by ID and by name.
+     */
+    private static final class Snapshot {
+        private final IntObjectMap<Product> index;
+        private final Product[] byId;
+        private final Product[] byName;
+        private final String[] names;
+
+        private Snapshot(IntObjectMap<Product> index) {
+            this.index = index;
+            this.byId = index.values().toArray(new Product[0]);
+            Arrays.sort(byId, Comparator.comparingInt(Product::getId));
+
+            this.byName = byId.clone();
+            Arrays.sort(byName, BY_NAME);
+            this.names = new String[byName.length];
+            for (int i = 0; i < byName.length; i++) {
+                names[i] = byName[i].getName().toLowerCase(Locale.ROOT);
+            }
+        }
+    }
+}
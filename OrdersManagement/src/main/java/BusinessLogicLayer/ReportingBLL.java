@@ -0,0 +1,117 @@
+package BusinessLogicLayer;
+
+import DataAccessLayer.ReportingDAO;
+import DataAccessLayer.SalesDailyDAO;
+import DataAccessLayer.SalesReport;
+
+import java.util.Date;
+
+/**
+ * The {@code ReportingBLL} class provides sales reports over a range of order dates.
+ * <p>
+ * Each report is computed by the database with a single aggregation query over the {@code sales_daily}
+ * rollup (see {@link ReportingDAO}), so a report over a year of orders reads at most one row per day,
+ * product and client and transfers one row per client, product or period.
+ * Ranges are half-open: {@code from} is included and {@code to} is not.
+ */
+public class ReportingBLL {
+
+    private final ReportingDAO reportingDAO = new ReportingDAO();
+    private final SalesDailyDAO salesDailyDAO = new SalesDailyDAO();
+
+    /**
+     * Returns the revenue and units sold of each client, highest revenue first.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one row per client: client ID, client name, revenue, units sold
+     * @throws IllegalArgumentException if the range is missing or empty
+     */
+    public SalesReport revenueByClient(Date from, Date to) {
+        validateRange(from, to);
+        return reportingDAO.revenueByClient(from, to);
+    }
+
+    /**
+     * Returns the revenue and units sold of each product, highest revenue first.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one row per product: product ID, product name, revenue, units sold
+     * @throws IllegalArgumentException if the range is missing or empty
+     */
+    public SalesReport revenueByProduct(Date from, Date to) {
+        validateRange(from, to);
+        return reportingDAO.revenueByProduct(from, to);
+    }
+
+    /**
+     * Returns the revenue and units sold of each day with orders, in date order.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one row per day: {@code yyyyMMdd}, {@code yyyy-MM-dd}, revenue, units sold
+     * @throws IllegalArgumentException if the range is missing or empty
+     */
+    public SalesReport revenueByDay(Date from, Date to) {
+        validateRange(from, to);
+        return reportingDAO.revenueByDay(from, to);
+    }
+
+    /**
+     * Returns the revenue and units sold of each month with orders, in date order.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one row per month: {@code yyyyMM}, {@code yyyy-MM}, revenue, units sold
+     * @throws IllegalArgumentException if the range is missing or empty
+     */
+    public SalesReport revenueByMonth(Date from, Date to) {
+        validateRange(from, to);
+        return reportingDAO.revenueByMonth(from, to);
+    }
+
+    /**
+     * Returns the {@code n} best-selling products, ranked by revenue or by units sold.
+     *
+     * @param from    the inclusive start of the range
+     * @param to      the exclusive end of the range
+     * @param n       the number of products, must be positive
+     * @param byUnits rank by units sold instead of revenue
+     * @return at most {@code n} rows: product ID, product name, revenue, units sold
+     * @throws IllegalArgumentException if the range is missing or empty, or {@code n} is not positive
+     */
+    public SalesReport topProducts(Date from, Date to, int n, boolean byUnits) {
+        validateRange(from, to);
+        if (n <= 0) {
+            throw new IllegalArgumentException("The number of products must be greater than 0.");
+        }
+        return reportingDAO.topProducts(from, to, n, byUnits);
+    }
+
+    /**
+     * Recomputes the {@code sales_daily} rollup for the days in {@code [from, to)} from the order tables.
+     * Needed after orders were removed by a cascade (deleting a client or a product) or changed outside the application.
+     *
+     * @param from the inclusive start of the range, or {@code null} for no lower bound
+     * @param to   the exclusive end of the range, or {@code null} for no upper bound
+     * @return the number of rollup rows written
+     * @throws IllegalArgumentException if both dates are given and the range is empty
+     * @throws RuntimeException if a SQL error occurs
+     */
+    public int rebuildSalesRollup(Date from, Date to) {
+        if (from != null && to != null && !from.before(to)) {
+            throw new IllegalArgumentException("The start date must be before the end date.");
+        }
+        return salesDailyDAO.rebuild(from, to);
+    }
+
+    private static void validateRange(Date from, Date to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("A report needs a start and an end date.");
+        }
+        if (!from.before(to)) {
+            throw new IllegalArgumentException("The start date must be before the end date.");
+        }
+    }
+}
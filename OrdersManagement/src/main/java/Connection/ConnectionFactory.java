@@ -1,17 +1,31 @@
 package Connection;
 
+import Monitoring.Metrics;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * {@code ConnectionFactory} is a singleton class responsible for managing connections to the MySQL database.
- * It loads the JDBC driver, creates database connections, and provides utility methods to close JDBC resources
- * such as {@link Connection}, {@link Statement}, and {@link ResultSet}.
+ * {@code ConnectionFactory} is a singleton class responsible for managing connections to the database.
+ * It loads the JDBC driver, hands out connections from a bounded {@link ConnectionPool}, and provides utility
+ * methods to close JDBC resources such as {@link Connection}, {@link Statement}, and {@link ResultSet}.
+ *
+ * <p>The driver, URL, credentials and pool settings come from {@link DatabaseConfig}, so the same build runs
+ * against the MySQL server or, with {@code -Ddb.profile=h2}, against an embedded H2 database whose schema
+ * is created from the {@code SQLDump} scripts when the pool starts.</p>
+ *
+ * <p>Unless {@code trace.enabled=false}, every connection is wrapped by a {@link StatementTracer}, which
+ * writes statements slower than {@code trace.slowQueryMs} to a rolling slow-query log.</p>
+ *
+ * <p>Closing a connection obtained from {@link #getConnection()} returns it to the pool, so callers keep
+ * the usual open/close pattern while the physical connection is reused.</p>
  *
  * <p>This class is used throughout the application to ensure consistent and centralized database access.</p>
  */
@@ -19,44 +33,101 @@ import java.util.logging.Logger;
 public class ConnectionFactory {
 
     private static final Logger LOGGER = Logger.getLogger((ConnectionFactory.class.getName()));
-    private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
-    private static final String DBURL = "jdbc:mysql://localhost:3306/tp";
-    private static final String USER = "root";
-    private static final String PASS = "D1228o4a.";
 
     private static ConnectionFactory singleInstance = new ConnectionFactory();
 
+    private final DatabaseConfig config;
+    private final ConnectionPool pool;
+    private final StatementTracer tracer;
+    private final Deque<Runnable> shutdownActions = new ConcurrentLinkedDeque<>();
+
     /**
-     * Private constructor that loads the JDBC driver class. Implements the Singleton pattern.
+     * Private constructor that loads the configuration and the JDBC driver class, creates the connection pool
+     * and runs the bootstrap scripts of an embedded database.
+     * Implements the Singleton pattern.
      */
 
     private ConnectionFactory() {
+        config = DatabaseConfig.load();
+        LOGGER.log(Level.INFO, "Database: " + config);
         try {
-            Class.forName(DRIVER);
+            Class.forName(config.getDriver());
         } catch (ClassNotFoundException e) {
             e.printStackTrace();
         }
+        pool = new ConnectionPool(config.getUrl(), config.getUser(), config.getPassword(),
+                config.getPoolMinIdle(), config.getPoolMaxSize(),
+                config.getPoolAcquireTimeoutMillis(), config.getPoolIdleTimeoutMillis(),
+                config.getPoolValidationIntervalMillis(), config.getPoolValidationTimeoutSeconds());
+        bootstrap();
+        tracer = StatementTracer.of(config);
+        Metrics.register("type=ConnectionPool", pool);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "connection-pool-shutdown"));
+    }
+
+    /**
+     * Creates the schema of an embedded database from the configured scripts. The in-memory database lives
+     * as long as the JVM, so this runs once per process.
+     */
+
+    private void bootstrap() {
+        if (config.getBootstrapScripts().isEmpty()) {
+            return;
+        }
+        try (Connection connection = pool.getConnection()) {
+            SchemaBootstrap.run(connection, config.getBootstrapScripts());
+        } catch (SQLException | IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "ConnectionFactory:bootstrap " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the registered shutdown actions, most recent first, then closes the pool.
+     */
+
+    private void shutdown() {
+        for (Runnable action : shutdownActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "A shutdown action failed: " + e.getMessage());
+            }
+        }
+        pool.close();
     }
 
     /**
-     * Creates a new {@link Connection} to the configured database using the JDBC DriverManager.
+     * Registers an action to run when the JVM shuts down, before the pool is closed,
+     * so it can still use database connections (e.g. to flush buffered writes).
      *
-     * @return a new {@code Connection} object, or {@code null} if connection fails
+     * @param action the action to run
+     */
+
+    public static void addShutdownAction(Runnable action) {
+        singleInstance.shutdownActions.addFirst(action);
+    }
+
+    /**
+     * Borrows a {@link Connection} from the pool, wrapped for tracing if enabled.
+     *
+     * @return a pooled {@code Connection} object, or {@code null} if connection fails
      */
 
     private Connection createConnection() {
         Connection connection = null;
         try {
-            connection = DriverManager.getConnection(DBURL, USER, PASS);
+            connection = pool.getConnection();
+            if (tracer != null) {
+                connection = tracer.wrap(connection);
+            }
         } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "An error occured while trying to connect to the database");
-            e.printStackTrace();
+            LOGGER.log(Level.WARNING, "An error occured while trying to connect to the database: " + e.getMessage());
         }
         return connection;
     }
 
     /**
-     * Returns a new database connection using the singleton instance.
+     * Returns a pooled database connection using the singleton instance.
      *
      * @return a {@link Connection} object
      */
@@ -66,7 +137,27 @@ public class ConnectionFactory {
     }
 
     /**
-     * Closes a {@link Connection}, if not {@code null}.
+     * Returns the database configuration in use.
+     *
+     * @return the configuration
+     */
+
+    public static DatabaseConfig getConfig() {
+        return singleInstance.config;
+    }
+
+    /**
+     * Returns the pooled {@link DataSource} behind this factory. Its connections are not traced.
+     *
+     * @return the connection pool
+     */
+
+    public static DataSource getDataSource() {
+        return singleInstance.pool;
+    }
+
+    /**
+     * Closes a {@link Connection}, if not {@code null}. Pooled connections are returned to the pool.
      *
      * @param connection the {@code Connection} to close
      */
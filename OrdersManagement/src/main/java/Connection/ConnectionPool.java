@@ -0,0 +1,454 @@
+package Connection;
+
+import Monitoring.LatencyHistogram;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@code ConnectionPool} is a bounded pool of physical JDBC connections exposed as a {@link DataSource}.
+ * <p>
+ * Connections handed out by {@link #getConnection()} are thin proxies: calling {@code close()} on them
+ * returns the physical connection to the pool instead of closing the socket, so existing
+ * try-with-resources code and {@link ConnectionFactory#close(Connection)} keep working unchanged.
+ *
+ * <p>The pool keeps at least {@code minIdle} connections warm, never opens more than {@code maxSize},
+ * validates idle connections on borrow, evicts connections that stayed idle for too long and makes
+ * callers wait at most {@code acquireTimeoutMillis} for a free connection.</p>
+ *
+ * <p>The time every borrow takes is recorded in a {@link LatencyHistogram} and exposed, with the pool
+ * occupancy, through {@link ConnectionPoolMXBean}.</p>
+ */
+
+public class ConnectionPool implements DataSource, ConnectionPoolMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minIdle;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int validationTimeoutSeconds;
+
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final LongAdder acquireTimeouts = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Creates a new pool. No connection is opened until the first borrow or the first housekeeping run.
+     *
+     * @param url                      the JDBC URL of the database
+     * @param user                     the database user
+     * @param password                 the database password
+     * @param minIdle                  the number of idle connections kept open by the housekeeper
+     * @param maxSize                  the maximum number of physical connections (borrowed + idle)
+     * @param acquireTimeoutMillis     how long {@link #getConnection()} waits for a free connection
+     * @param idleTimeoutMillis        how long a connection above {@code minIdle} may stay idle before eviction
+     * @param validationIntervalMillis idle time after which a connection is validated before being handed out
+     * @param validationTimeoutSeconds timeout passed to {@link Connection#isValid(int)}
+     */
+
+    public ConnectionPool(String url, String user, String password, int minIdle, int maxSize,
+                          long acquireTimeoutMillis, long idleTimeoutMillis,
+                          long validationIntervalMillis, int validationTimeoutSeconds) {
+        if (maxSize <= 0 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool bounds: minIdle=" + minIdle + ", maxSize=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new physical connection if no idle one is available
+     * and the pool has not reached its maximum size.
+     *
+     * @return a pooled {@link Connection}; closing it returns it to the pool
+     * @throws SQLTimeoutException if no connection becomes available within the acquire timeout
+     * @throws SQLException        if a new physical connection cannot be opened
+     */
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                acquireTimeouts.increment();
+                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a connection (maxSize=" + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            PooledEntry entry;
+            while ((entry = idle.pollFirst()) != null) {
+                if (isUsable(entry)) {
+                    break;
+                }
+                destroy(entry);
+            }
+            Connection connection = (entry != null ? entry : open()).lease();
+            acquireLatency.record(System.nanoTime() - start);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Not supported: the pool always connects with the credentials it was created with.
+     */
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("ConnectionPool does not support per-call credentials");
+    }
+
+    /**
+     * Returns the number of physical connections currently open (borrowed and idle).
+     *
+     * @return the number of open connections
+     */
+
+    @Override
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    /**
+     * Returns the number of idle connections waiting in the pool.
+     *
+     * @return the number of idle connections
+     */
+
+    @Override
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return maxSize - permits.availablePermits();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireLatency.getCount();
+    }
+
+    @Override
+    public long getAcquireTimeoutCount() {
+        return acquireTimeouts.sum();
+    }
+
+    @Override
+    public double getAcquireMeanMillis() {
+        return acquireLatency.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getAcquireP50Millis() {
+        return acquireLatency.getValueAtPercentile(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getAcquireP99Millis() {
+        return acquireLatency.getValueAtPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getAcquireMaxMillis() {
+        return acquireLatency.getMax() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns the histogram of the time taken by {@link #getConnection()}, in nanoseconds.
+     *
+     * @return the acquire latency histogram
+     */
+
+    public LatencyHistogram getAcquireLatency() {
+        return acquireLatency;
+    }
+
+    /**
+     * Closes every idle connection and stops the housekeeper. Connections that are still borrowed
+     * are closed when they are returned.
+     */
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    /**
+     * Opens a new physical connection.
+     *
+     * @return the new pool entry
+     * @throws SQLException if the driver cannot connect
+     */
+
+    private PooledEntry open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        openConnections.incrementAndGet();
+        return new PooledEntry(physical);
+    }
+
+    /**
+     * Checks whether an idle connection can be handed out. Connections used recently are trusted,
+     * older ones are validated with a round trip to the server.
+     *
+     * @param entry the idle entry
+     * @return {@code true} if the connection is still usable
+     */
+
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - entry.lastUsed < validationIntervalMillis) {
+                return true;
+            }
+            return entry.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gives a borrowed connection back to the pool, resetting the transactional state a caller may have changed.
+     *
+     * @param entry the entry being returned
+     */
+
+    private void release(PooledEntry entry) {
+        try {
+            boolean reusable = !closed && !entry.physical.isClosed();
+            if (reusable && !entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                entry.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(entry);
+            } else {
+                destroy(entry);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Discarding a connection that could not be reset: " + e.getMessage());
+            destroy(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes the physical connection of an entry that leaves the pool.
+     *
+     * @param entry the entry to close
+     */
+
+    private void destroy(PooledEntry entry) {
+        openConnections.decrementAndGet();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "An error occured while closing a pooled connection");
+        }
+    }
+
+    /**
+     * Periodic task: evicts connections idle for longer than the idle timeout (keeping {@code minIdle})
+     * and tops the pool back up to {@code minIdle} idle connections.
+     */
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledEntry> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > minIdle) {
+            PooledEntry entry = it.next();
+            if (now - entry.lastUsed > idleTimeoutMillis && idle.removeLastOccurrence(entry)) {
+                destroy(entry);
+            }
+        }
+
+        while (!closed && idle.size() < minIdle && openConnections.get() < maxSize) {
+            try {
+                idle.offerLast(open());
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Could not pre-open a pooled connection: " + e.getMessage());
+                break;
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool, together with its last-use timestamp.
+     */
+
+    private final class PooledEntry {
+        private final Connection physical;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Wraps the physical connection in a proxy whose {@code close()} returns it to the pool.
+         *
+         * @return the proxy handed out to callers
+         */
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * Invocation handler behind a leased connection. Every call is forwarded to the physical connection
+     * until the lease is closed; afterwards the proxy behaves like a closed connection.
+     */
+
+    private final class LeaseHandler implements InvocationHandler {
+        private PooledEntry entry;
+
+        private LeaseHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    synchronized (this) {
+                        if (entry != null) {
+                            PooledEntry returned = entry;
+                            entry = null;
+                            release(returned);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return entry == null || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (entry == null ? "closed" : entry.physical) + "]";
+                default:
+                    PooledEntry current = entry;
+                    if (current == null) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(current.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool does not wrap " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
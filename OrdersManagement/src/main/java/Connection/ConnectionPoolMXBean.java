@@ -0,0 +1,90 @@
+package Connection;
+
+/**
+ * JMX view of a {@link ConnectionPool}: its occupancy and how long callers wait to acquire a connection.
+ * Acquire latencies are in milliseconds and cover the wait for a free slot, validation of an idle connection
+ * and, when the pool grows, opening a new physical connection.
+ */
+
+public interface ConnectionPoolMXBean {
+
+    /**
+     * Returns the number of physical connections currently open (borrowed and idle).
+     *
+     * @return the number of open connections
+     */
+
+    int getOpenConnections();
+
+    /**
+     * Returns the number of idle connections waiting in the pool.
+     *
+     * @return the number of idle connections
+     */
+
+    int getIdleConnections();
+
+    /**
+     * Returns the number of connections currently borrowed.
+     *
+     * @return the number of active connections
+     */
+
+    int getActiveConnections();
+
+    /**
+     * Returns the maximum number of physical connections.
+     *
+     * @return the maximum pool size
+     */
+
+    int getMaxSize();
+
+    /**
+     * Returns the number of successful acquisitions.
+     *
+     * @return the acquire count
+     */
+
+    long getAcquireCount();
+
+    /**
+     * Returns the number of acquisitions that timed out waiting for a free connection.
+     *
+     * @return the timeout count
+     */
+
+    long getAcquireTimeoutCount();
+
+    /**
+     * Returns the mean time to acquire a connection.
+     *
+     * @return the mean in milliseconds
+     */
+
+    double getAcquireMeanMillis();
+
+    /**
+     * Returns the median time to acquire a connection.
+     *
+     * @return the 50th percentile in milliseconds
+     */
+
+    double getAcquireP50Millis();
+
+    /**
+     * Returns the 99th percentile time to acquire a connection.
+     *
+     * @return the 99th percentile in milliseconds
+     */
+
+    double getAcquireP99Millis();
+
+    /**
+     * Returns the longest time taken to acquire a connection.
+     *
+     * @return the maximum in milliseconds
+     */
+
+    double getAcquireMaxMillis();
+}
@@ -0,0 +1,398 @@
+package Connection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * {@code DatabaseConfig} holds the settings used by {@link ConnectionFactory}: the JDBC driver, URL and
+ * credentials, the connection pool sizes and timeouts, the SQL scripts that bootstrap an embedded database
+ * and the statement tracing and slow-query log of {@link StatementTracer}.
+ *
+ * <p>Settings are resolved from, in increasing order of precedence:</p>
+ * <ol>
+ *     <li>the defaults of the selected profile ({@code db.profile}, {@code mysql} or {@code h2});</li>
+ *     <li>{@code database.properties} on the classpath;</li>
+ *     <li>the file named by the {@code db.config} system property, if any;</li>
+ *     <li>the {@code DB_PASSWORD} environment variable, for the password only;</li>
+ *     <li>system properties with the same keys, e.g. {@code -Ddb.url=...}, {@code -Dpool.maxSize=20} or
+ *     {@code -Dtrace.slowQueryMs=200}.</li>
+ * </ol>
+ *
+ * <p>The {@code h2} profile runs an in-memory H2 database in MySQL mode and creates the schema from the
+ * scripts in {@code SQLDump}, so the application, load tests and benchmarks can run on a machine without
+ * MySQL. Its H2 driver is a runtime dependency of the application.</p>
+ */
+
+public final class DatabaseConfig {
+
+    /**
+     * Profile name of the MySQL server backend (the default).
+     */
+    public static final String PROFILE_MYSQL = "mysql";
+
+    /**
+     * Profile name of the embedded H2 backend in MySQL mode.
+     */
+    public static final String PROFILE_H2 = "h2";
+
+    private static final String RESOURCE = "/database.properties";
+    private static final String CONFIG_FILE_PROPERTY = "db.config";
+    private static final String PASSWORD_VARIABLE = "DB_PASSWORD";
+
+    private final String profile;
+    private final String driver;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final List<String> bootstrapScripts;
+    private final int poolMinIdle;
+    private final int poolMaxSize;
+    private final long poolAcquireTimeoutMillis;
+    private final long poolIdleTimeoutMillis;
+    private final long poolValidationIntervalMillis;
+    private final int poolValidationTimeoutSeconds;
+    private final boolean traceEnabled;
+    private final long traceSlowQueryMillis;
+    private final double traceSampleRate;
+    private final StatementTracer.Redaction traceRedaction;
+    private final List<String> traceSensitiveColumns;
+    private final String traceLogFile;
+    private final int traceLogFileLimitBytes;
+    private final int traceLogFileCount;
+
+    private DatabaseConfig(Properties properties) {
+        this.profile = properties.getProperty("db.profile", PROFILE_MYSQL).trim().toLowerCase();
+        Properties defaults = profileDefaults(profile);
+        this.driver = get(properties, defaults, "db.driver");
+        this.url = get(properties, defaults, "db.url");
+        this.user = get(properties, defaults, "db.user");
+        this.password = properties.getProperty("db.password", defaults.getProperty("db.password"));
+        this.bootstrapScripts = new ArrayList<>();
+        for (String script : get(properties, defaults, "db.bootstrap").split(",")) {
+            if (!script.isBlank()) {
+                bootstrapScripts.add(script.trim());
+            }
+        }
+        this.poolMinIdle = Integer.parseInt(get(properties, defaults, "pool.minIdle"));
+        this.poolMaxSize = Integer.parseInt(get(properties, defaults, "pool.maxSize"));
+        this.poolAcquireTimeoutMillis = Long.parseLong(get(properties, defaults, "pool.acquireTimeoutMs"));
+        this.poolIdleTimeoutMillis = Long.parseLong(get(properties, defaults, "pool.idleTimeoutMs"));
+        this.poolValidationIntervalMillis = Long.parseLong(get(properties, defaults, "pool.validationIntervalMs"));
+        this.poolValidationTimeoutSeconds = Integer.parseInt(get(properties, defaults, "pool.validationTimeoutS"));
+        this.traceEnabled = Boolean.parseBoolean(get(properties, defaults, "trace.enabled"));
+        this.traceSlowQueryMillis = Long.parseLong(get(properties, defaults, "trace.slowQueryMs"));
+        this.traceSampleRate = Double.parseDouble(get(properties, defaults, "trace.sampleRate"));
+        this.traceRedaction = StatementTracer.Redaction.valueOf(get(properties, defaults, "trace.redact").toUpperCase());
+        this.traceSensitiveColumns = List.of(get(properties, defaults, "trace.sensitiveColumns").split("\\s*,\\s*"));
+        this.traceLogFile = get(properties, defaults, "trace.logFile");
+        this.traceLogFileLimitBytes = Integer.parseInt(get(properties, defaults, "trace.logFileLimitBytes"));
+        this.traceLogFileCount = Integer.parseInt(get(properties, defaults, "trace.logFileCount"));
+    }
+
+    /**
+     * Resolves the configuration from the classpath resource, the optional external file, the password variable
+     * and the system properties.
+     *
+     * @return the configuration
+     * @throws IllegalStateException if a configuration file cannot be read or the profile is unknown
+     */
+
+    public static DatabaseConfig load() {
+        Properties properties = new Properties();
+        try (InputStream in = DatabaseConfig.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + RESOURCE + ": " + e.getMessage(), e);
+        }
+
+        String configFile = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (configFile != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(configFile), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + configFile + ": " + e.getMessage(), e);
+            }
+        }
+
+        String password = System.getenv(PASSWORD_VARIABLE);
+        if (password != null) {
+            properties.setProperty("db.password", password);
+        }
+
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("db.") || key.startsWith("pool.") || key.startsWith("trace.")) {
+                properties.setProperty(key, System.getProperty(key));
+            }
+        }
+        return new DatabaseConfig(properties);
+    }
+
+    /**
+     * Returns the selected profile.
+     *
+     * @return {@link #PROFILE_MYSQL} or {@link #PROFILE_H2}
+     */
+
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * Returns the JDBC driver class name.
+     *
+     * @return the driver class
+     */
+
+    public String getDriver() {
+        return driver;
+    }
+
+    /**
+     * Returns the JDBC URL, including any driver options.
+     *
+     * @return the URL
+     */
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the database user.
+     *
+     * @return the user
+     */
+
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the database password.
+     *
+     * @return the password
+     */
+
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Returns the SQL scripts run once when the pool is created, in order; empty for a server database.
+     *
+     * @return the script paths
+     */
+
+    public List<String> getBootstrapScripts() {
+        return bootstrapScripts;
+    }
+
+    /**
+     * Returns the number of idle connections kept open by the pool.
+     *
+     * @return the minimum idle count
+     */
+
+    public int getPoolMinIdle() {
+        return poolMinIdle;
+    }
+
+    /**
+     * Returns the maximum number of physical connections of the pool.
+     *
+     * @return the maximum pool size
+     */
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    /**
+     * Returns how long a borrow waits for a free connection.
+     *
+     * @return the acquire timeout in milliseconds
+     */
+
+    public long getPoolAcquireTimeoutMillis() {
+        return poolAcquireTimeoutMillis;
+    }
+
+    /**
+     * Returns how long a connection above the minimum may stay idle.
+     *
+     * @return the idle timeout in milliseconds
+     */
+
+    public long getPoolIdleTimeoutMillis() {
+        return poolIdleTimeoutMillis;
+    }
+
+    /**
+     * Returns the idle time after which a connection is validated before being handed out.
+     *
+     * @return the validation interval in milliseconds
+     */
+
+    public long getPoolValidationIntervalMillis() {
+        return poolValidationIntervalMillis;
+    }
+
+    /**
+     * Returns the timeout of a connection validation.
+     *
+     * @return the validation timeout in seconds
+     */
+
+    public int getPoolValidationTimeoutSeconds() {
+        return poolValidationTimeoutSeconds;
+    }
+
+    /**
+     * Returns whether the statements run through {@link ConnectionFactory} are traced.
+     *
+     * @return {@code true} to install the {@link StatementTracer}
+     */
+
+    public boolean isTraceEnabled() {
+        return traceEnabled;
+    }
+
+    /**
+     * Returns the execution plus fetch time from which a statement is written to the slow-query log.
+     *
+     * @return the threshold in milliseconds
+     */
+
+    public long getTraceSlowQueryMillis() {
+        return traceSlowQueryMillis;
+    }
+
+    /**
+     * Returns the fraction of statements whose parameters are recorded and which are reported at {@code FINE};
+     * every statement is timed and logged if slow.
+     *
+     * @return the sample rate, between {@code 0} and {@code 1}
+     */
+
+    public double getTraceSampleRate() {
+        return traceSampleRate;
+    }
+
+    /**
+     * Returns how bound parameters appear in traces.
+     *
+     * @return the redaction mode
+     */
+
+    public StatementTracer.Redaction getTraceRedaction() {
+        return traceRedaction;
+    }
+
+    /**
+     * Returns the columns whose bound values are masked in {@code sensitive} redaction mode.
+     *
+     * @return the column names
+     */
+
+    public List<String> getTraceSensitiveColumns() {
+        return traceSensitiveColumns;
+    }
+
+    /**
+     * Returns the {@link java.util.logging.FileHandler} pattern of the rolling slow-query log.
+     *
+     * @return the file pattern, or an empty string to use the normal logging configuration
+     */
+
+    public String getTraceLogFile() {
+        return traceLogFile;
+    }
+
+    /**
+     * Returns the size after which the slow-query log rolls over to a new file.
+     *
+     * @return the limit in bytes
+     */
+
+    public int getTraceLogFileLimitBytes() {
+        return traceLogFileLimitBytes;
+    }
+
+    /**
+     * Returns the number of rolled slow-query log files kept.
+     *
+     * @return the file count
+     */
+
+    public int getTraceLogFileCount() {
+        return traceLogFileCount;
+    }
+
+    /**
+     * Returns a description of the configuration without the password, for logging.
+     *
+     * @return the description
+     */
+
+    @Override
+    public String toString() {
+        return "profile=" + profile + ", url=" + url + ", user=" + user + ", pool=" + poolMinIdle + ".." + poolMaxSize;
+    }
+
+    /**
+     * Returns the built-in settings of a profile.
+     */
+
+    private static Properties profileDefaults(String profile) {
+        Properties defaults = new Properties();
+        defaults.setProperty("pool.minIdle", "2");
+        defaults.setProperty("pool.maxSize", "10");
+        defaults.setProperty("pool.acquireTimeoutMs", "5000");
+        defaults.setProperty("pool.idleTimeoutMs", "60000");
+        defaults.setProperty("pool.validationIntervalMs", "1000");
+        defaults.setProperty("pool.validationTimeoutS", "2");
+        defaults.setProperty("trace.enabled", "true");
+        defaults.setProperty("trace.slowQueryMs", "500");
+        defaults.setProperty("trace.sampleRate", "0.01");
+        defaults.setProperty("trace.redact", "sensitive");
+        defaults.setProperty("trace.sensitiveColumns", "name,email,phone,address,clientName");
+        defaults.setProperty("trace.logFile", "logs/slow-queries.%g.log");
+        defaults.setProperty("trace.logFileLimitBytes", "10485760");
+        defaults.setProperty("trace.logFileCount", "5");
+        switch (profile) {
+            case PROFILE_MYSQL -> {
+                defaults.setProperty("db.driver", "com.mysql.cj.jdbc.Driver");
+                defaults.setProperty("db.url",
+                        "jdbc:mysql://localhost:3306/tp?rewriteBatchedStatements=true&useCursorFetch=true");
+                defaults.setProperty("db.user", "root");
+                defaults.setProperty("db.password", "");
+                defaults.setProperty("db.bootstrap", "");
+            }
+            case PROFILE_H2 -> {
+                defaults.setProperty("db.driver", "org.h2.Driver");
+                defaults.setProperty("db.url", "jdbc:h2:mem:tp;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                        + "NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1");
+                defaults.setProperty("db.user", "sa");
+                defaults.setProperty("db.password", "");
+                defaults.setProperty("db.bootstrap", "SQLDump/_localhost-2025_05_20_14_51_47-dump.sql,"
+                        + "SQLDump/sales-daily.sql,SQLDump/reporting-indexes.sql");
+            }
+            default -> throw new IllegalStateException("Unknown database profile '" + profile
+                    + "'; expected " + PROFILE_MYSQL + " or " + PROFILE_H2);
+        }
+        return defaults;
+    }
+
+    private static String get(Properties properties, Properties defaults, String key) {
+        return properties.getProperty(key, defaults.getProperty(key)).trim();
+    }
+}
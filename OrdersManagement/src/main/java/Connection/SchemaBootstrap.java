@@ -0,0 +1,170 @@
+package Connection;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@code SchemaBootstrap} runs the MySQL scripts of {@code SQLDump} against an embedded database in MySQL mode.
+ *
+ * <p>The scripts are {@code mysqldump} output, so a few MySQL-only constructs are rewritten before a
+ * statement is executed: version comments ({@code /*!40101 ... *&#47;}) and {@code SET} / {@code LOCK TABLES}
+ * statements are dropped, the table options after a {@code CREATE TABLE} ({@code ENGINE=...}) are removed,
+ * {@code KEY} / {@code UNIQUE KEY} clauses become separate {@code CREATE INDEX} statements, because
+ * index names are per table in MySQL and per schema in H2, and foreign keys are added with
+ * {@code ALTER TABLE} at the end of the script, because the dump creates tables before the tables they
+ * reference and relies on {@code FOREIGN_KEY_CHECKS=0}. {@code ALTER TABLE ... DROP INDEX} statements are
+ * skipped: they only remove indexes made redundant by a wider one, and H2 refuses to drop an index that a
+ * foreign key was created on.</p>
+ */
+
+final class SchemaBootstrap {
+
+    private static final Logger LOGGER = Logger.getLogger(SchemaBootstrap.class.getName());
+
+    private static final Pattern VERSION_COMMENT = Pattern.compile("/\\*!\\d+.*?\\*/", Pattern.DOTALL);
+    private static final Pattern CREATE_TABLE = Pattern.compile("(?is)^CREATE TABLE\\s+`?(\\w+)`?\\s*\\((.*)\\)[^)]*$");
+    private static final Pattern KEY = Pattern.compile("(?i)^(UNIQUE\\s+)?KEY\\s+`?(\\w+)`?\\s*(\\(.*\\))$");
+    private static final Pattern FOREIGN_KEY = Pattern.compile("(?i)^CONSTRAINT\\s+.*FOREIGN\\s+KEY.*$");
+    private static final Pattern DROP_INDEX = Pattern.compile("(?is)^ALTER\\s+TABLE\\s+\\S+\\s+DROP\\s+(INDEX|KEY)\\s+.*$");
+
+    private SchemaBootstrap() {
+    }
+
+    /**
+     * Runs the given scripts, in order, on one connection. Relative paths are resolved against the working
+     * directory and then its parent, so the default {@code SQLDump/...} paths work from the repository root
+     * and from the {@code OrdersManagement} module directory.
+     *
+     * @param connection the connection to use; it is not closed
+     * @param scripts    the script paths
+     * @throws SQLException if a statement fails
+     * @throws IllegalStateException if a script cannot be found or read
+     */
+
+    static void run(Connection connection, List<String> scripts) throws SQLException {
+        for (String script : scripts) {
+            Path path = resolve(script);
+            String sql;
+            try {
+                sql = Files.readString(path, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + path + ": " + e.getMessage(), e);
+            }
+            int count = 0;
+            List<String> deferred = new ArrayList<>();
+            try (Statement statement = connection.createStatement()) {
+                for (String raw : split(sql)) {
+                    for (String translated : translate(raw, deferred)) {
+                        statement.execute(translated);
+                        count++;
+                    }
+                }
+                for (String constraint : deferred) {
+                    statement.execute(constraint);
+                    count++;
+                }
+            }
+            LOGGER.log(Level.INFO, "SchemaBootstrap: ran " + count + " statements from " + path);
+        }
+    }
+
+    private static Path resolve(String script) {
+        Path path = Path.of(script);
+        if (!path.isAbsolute() && !Files.exists(path) && Files.exists(Path.of("..").resolve(script))) {
+            path = Path.of("..").resolve(script);
+        }
+        if (!Files.exists(path)) {
+            throw new IllegalStateException("Bootstrap script not found: " + script);
+        }
+        return path;
+    }
+
+    /**
+     * Splits a script into statements at semicolons outside string literals, dropping {@code --} comment lines
+     * and MySQL version comments.
+     */
+
+    static List<String> split(String sql) {
+        String withoutComments = VERSION_COMMENT.matcher(sql).replaceAll("");
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inString = false;
+        boolean lineStart = true;
+        for (int i = 0; i < withoutComments.length(); i++) {
+            char c = withoutComments.charAt(i);
+            if (!inString && lineStart && c == '-' && withoutComments.startsWith("--", i)) {
+                int end = withoutComments.indexOf('\n', i);
+                i = end < 0 ? withoutComments.length() : end;
+                continue;
+            }
+            lineStart = c == '\n' || (lineStart && Character.isWhitespace(c));
+            if (c == '\'' && (i == 0 || withoutComments.charAt(i - 1) != '\\')) {
+                inString = !inString;
+            }
+            if (c == ';' && !inString) {
+                addStatement(statements, current);
+            } else {
+                current.append(c);
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().trim();
+        current.setLength(0);
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+    }
+
+    /**
+     * Rewrites one MySQL statement into the statements to run on the embedded database; returns no statement
+     * for session settings, table locks and index drops. Foreign keys are added to {@code deferred} as
+     * {@code ALTER TABLE} statements to run after the script.
+     */
+
+    static List<String> translate(String statement, List<String> deferred) {
+        String upper = statement.toUpperCase();
+        if (upper.startsWith("SET ") || upper.startsWith("LOCK TABLES") || upper.startsWith("UNLOCK TABLES")
+                || DROP_INDEX.matcher(statement).matches()) {
+            return List.of();
+        }
+        Matcher table = CREATE_TABLE.matcher(statement);
+        if (!table.matches()) {
+            return List.of(statement);
+        }
+
+        String tableName = table.group(1);
+        List<String> columns = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        for (String line : table.group(2).split(",\\s*\\n")) {
+            String definition = line.trim();
+            Matcher key = KEY.matcher(definition);
+            if (FOREIGN_KEY.matcher(definition).matches()) {
+                deferred.add("ALTER TABLE `" + tableName + "` ADD " + definition);
+            } else if (key.matches()) {
+                indexes.add("CREATE " + (key.group(1) != null ? "UNIQUE " : "") + "INDEX `" + tableName + "_"
+                        + key.group(2) + "` ON `" + tableName + "` " + key.group(3));
+            } else {
+                columns.add(definition);
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        statements.add("CREATE TABLE `" + tableName + "` (\n  " + String.join(",\n  ", columns) + "\n)");
+        statements.addAll(indexes);
+        return statements;
+    }
+}
@@ -0,0 +1,571 @@
+package Connection;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@code StatementTracer} wraps the connections handed out by {@link ConnectionFactory} in a thin proxy that
+ * times every statement they run. For each traced statement it captures the SQL text, the bound parameters,
+ * the execution time, the time spent fetching rows from the result set and the number of rows returned or changed.
+ * <p>
+ * A statement is reported when it is finished: an update after it executed, a query when its result set
+ * (or the statement) is closed, so the fetch time is included. Every report goes to the
+ * {@code Connection.StatementTracer} logger at {@code FINE}; statements whose execution and fetch time reach
+ * the slow-query threshold also go to a rolling slow-query file, one line each.
+ * <p>
+ * Every statement is timed, which costs two {@code nanoTime} calls per execution and per fetched row, so every
+ * statement over the threshold reaches the slow-query file. Sampling keeps the rest cheap under load: only a
+ * fraction {@code trace.sampleRate} of the statements record their bound parameters and are reported at
+ * {@code FINE}; slow statements that were not sampled are logged without parameters. The default rate samples
+ * one statement in a hundred; {@code 1.0} is meant for diagnosing a problem, not for normal operation.
+ * Parameters are redacted according to {@code trace.redact}: {@code none}, {@code all}, or
+ * {@code sensitive} (the default), which masks the values bound to the columns listed in
+ * {@code trace.sensitiveColumns}. A parameter is matched to its column from the column list of an
+ * {@code INSERT} or from a {@code column = ?} style comparison.
+ */
+
+public final class StatementTracer {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementTracer.class.getName());
+    private static final Logger SLOW_QUERY_LOGGER = Logger.getLogger("OrdersManagement.SlowQueries");
+
+    private static final String REDACTED = "'***'";
+    private static final int MAX_PARAMETER_LENGTH = 64;
+    private static final int MAX_CACHED_STATEMENTS = 1024;
+    private static final Pattern INSERT = Pattern.compile(
+            "(?is)^\\s*INSERT\\s+INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\((.*?)\\)");
+    private static final Pattern COMPARISON = Pattern.compile(
+            "(?i)`?(\\w+)`?\\s*(?:=|<>|!=|<=|>=|<|>|\\s+LIKE)\\s*\\?");
+
+    /**
+     * How bound parameters appear in the trace.
+     */
+
+    public enum Redaction {
+        /** Parameters are shown as bound. */
+        NONE,
+        /** Parameters bound to a sensitive column are masked. */
+        SENSITIVE,
+        /** Every parameter is masked. */
+        ALL
+    }
+
+    private final long slowQueryNanos;
+    private final double sampleRate;
+    private final Redaction redaction;
+    private final Set<String> sensitiveColumns;
+    private final Map<String, boolean[]> sensitivePlaceholders = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a tracer and, if {@code logFile} is set, opens the rolling slow-query file.
+     *
+     * @param slowQueryMillis  the execution plus fetch time from which a statement is logged as slow
+     * @param sampleRate       the fraction of statements whose parameters are recorded and which are reported
+     *                         at {@code FINE}, between {@code 0} and {@code 1}
+     * @param redaction        how bound parameters are shown
+     * @param sensitiveColumns the columns masked by {@link Redaction#SENSITIVE}, case-insensitive
+     * @param logFile          the slow-query file pattern of a {@link FileHandler}, or {@code null} to log slow
+     *                         statements through the normal logging configuration only
+     * @param logFileLimit     the size in bytes after which the slow-query file rolls over
+     * @param logFileCount     the number of slow-query files kept
+     */
+
+    public StatementTracer(long slowQueryMillis, double sampleRate, Redaction redaction, List<String> sensitiveColumns,
+                           String logFile, int logFileLimit, int logFileCount) {
+        if (slowQueryMillis < 0 || sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Invalid tracer settings: slowQueryMillis=" + slowQueryMillis
+                    + ", sampleRate=" + sampleRate);
+        }
+        this.slowQueryNanos = slowQueryMillis * 1_000_000;
+        this.sampleRate = sampleRate;
+        this.redaction = redaction;
+        this.sensitiveColumns = new HashSet<>();
+        for (String column : sensitiveColumns) {
+            this.sensitiveColumns.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        if (logFile != null && !logFile.isBlank()) {
+            openSlowQueryFile(logFile, logFileLimit, logFileCount);
+        }
+    }
+
+    /**
+     * Creates the tracer described by the {@code trace.*} settings of a configuration.
+     *
+     * @param config the configuration
+     * @return the tracer, or {@code null} if tracing is disabled
+     */
+
+    public static StatementTracer of(DatabaseConfig config) {
+        if (!config.isTraceEnabled()) {
+            return null;
+        }
+        return new StatementTracer(config.getTraceSlowQueryMillis(), config.getTraceSampleRate(),
+                config.getTraceRedaction(), config.getTraceSensitiveColumns(), config.getTraceLogFile(),
+                config.getTraceLogFileLimitBytes(), config.getTraceLogFileCount());
+    }
+
+    /**
+     * Wraps a connection so the statements it prepares are traced. Everything else is forwarded unchanged,
+     * including {@code close()}, which returns a pooled connection to its pool.
+     *
+     * @param connection the connection to wrap, may be {@code null}
+     * @return the traced connection, or {@code null} if {@code connection} is {@code null}
+     */
+
+    public Connection wrap(Connection connection) {
+        if (connection == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private void openSlowQueryFile(String logFile, int limit, int count) {
+        try {
+            Path parent = Path.of(logFile).toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            FileHandler handler = new FileHandler(logFile, limit, count, true);
+            handler.setFormatter(new SlowQueryFormatter());
+            SLOW_QUERY_LOGGER.addHandler(handler);
+            SLOW_QUERY_LOGGER.setUseParentHandlers(false);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "StatementTracer:openSlowQueryFile " + logFile + " " + e.getMessage());
+        }
+    }
+
+    private boolean sample() {
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Logs a finished statement: at {@code FINE} to the trace logger and, if it was slow, to the slow-query log.
+     */
+
+    private void report(Trace trace) {
+        long total = trace.executeNanos + trace.fetchNanos;
+        boolean slow = total >= slowQueryNanos;
+        if (!slow && (!trace.sampled || !LOGGER.isLoggable(Level.FINE))) {
+            return;
+        }
+        String line = String.format(Locale.ROOT, "%.3f ms (execute %.3f ms, fetch %.3f ms, rows %d%s) %s | params %s",
+                total / 1e6, trace.executeNanos / 1e6, trace.fetchNanos / 1e6, trace.rows,
+                trace.batchSize > 0 ? ", batch " + trace.batchSize : "",
+                trace.sql.replaceAll("\\s+", " ").trim(), trace.sampled ? formatParameters(trace) : "not sampled");
+        if (trace.sampled) {
+            LOGGER.log(Level.FINE, line);
+        }
+        if (slow) {
+            SLOW_QUERY_LOGGER.log(Level.WARNING, line);
+        }
+    }
+
+    private String formatParameters(Trace trace) {
+        Object[] parameters = trace.batchSize > 0 && trace.firstBatchRow != null ? trace.firstBatchRow : trace.parameters;
+        if (parameters.length == 0) {
+            return "[]";
+        }
+        boolean[] sensitive = redaction == Redaction.SENSITIVE ? sensitivePlaceholders(trace.sql) : null;
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            if (redaction == Redaction.ALL || sensitive != null && i < sensitive.length && sensitive[i]) {
+                text.append(REDACTED);
+            } else {
+                text.append(formatValue(parameters[i]));
+            }
+        }
+        return text.append(']').toString();
+    }
+
+    private static String formatValue(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text = value.toString();
+        if (text.length() > MAX_PARAMETER_LENGTH) {
+            text = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+        }
+        return "'" + text + "'";
+    }
+
+    /**
+     * Returns, for each placeholder of {@code sql}, whether it is bound to a sensitive column. Computed once per
+     * statement text; the application uses a fixed set of statements, so the cache stays small.
+     */
+
+    private boolean[] sensitivePlaceholders(String sql) {
+        boolean[] cached = sensitivePlaceholders.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        boolean[] computed = sensitivePlaceholders(sql, sensitiveColumns);
+        if (sensitivePlaceholders.size() < MAX_CACHED_STATEMENTS) {
+            sensitivePlaceholders.put(sql, computed);
+        }
+        return computed;
+    }
+
+    /**
+     * Matches every placeholder of {@code sql} to the column it is bound to and flags the sensitive ones.
+     *
+     * @param sql     the statement text
+     * @param columns the sensitive column names, lower case
+     * @return one flag per placeholder, in order
+     */
+
+    static boolean[] sensitivePlaceholders(String sql, Set<String> columns) {
+        List<Integer> placeholders = placeholderPositions(sql);
+        boolean[] sensitive = new boolean[placeholders.size()];
+
+        Matcher insert = INSERT.matcher(sql);
+        if (insert.find()) {
+            String[] insertColumns = insert.group(1).split(",");
+            int column = 0;
+            for (int i = 0; i < placeholders.size() && column < insertColumns.length; i++) {
+                int position = placeholders.get(i);
+                if (position >= insert.start(2) && position < insert.end(2)) {
+                    String name = insertColumns[column++].trim().replace("`", "").toLowerCase(Locale.ROOT);
+                    sensitive[i] = columns.contains(name);
+                }
+            }
+        }
+
+        Matcher comparison = COMPARISON.matcher(sql);
+        while (comparison.find()) {
+            int index = placeholders.indexOf(comparison.end() - 1);
+            if (index >= 0 && columns.contains(comparison.group(1).toLowerCase(Locale.ROOT))) {
+                sensitive[index] = true;
+            }
+        }
+        return sensitive;
+    }
+
+    /**
+     * Returns the positions of the {@code ?} placeholders of {@code sql} outside string literals.
+     */
+
+    private static List<Integer> placeholderPositions(String sql) {
+        List<Integer> positions = new ArrayList<>();
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '?') {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * What is known about one execution of a statement while it runs.
+     */
+
+    private static final class Trace {
+        private final String sql;
+        private final boolean sampled;
+        private final Object[] parameters;
+        private final Object[] firstBatchRow;
+        private final int batchSize;
+        private final long executeNanos;
+        private long fetchNanos;
+        private long rows;
+
+        private Trace(String sql, boolean sampled, Object[] parameters, Object[] firstBatchRow, int batchSize,
+                      long executeNanos) {
+            this.sql = sql;
+            this.sampled = sampled;
+            this.parameters = parameters;
+            this.firstBatchRow = firstBatchRow;
+            this.batchSize = batchSize;
+            this.executeNanos = executeNanos;
+        }
+    }
+
+    /**
+     * Traces the statements prepared on a connection and forwards every other call.
+     */
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "TracedConnection[" + target + "]";
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                default:
+                    break;
+            }
+            Object result = StatementTracer.invoke(target, method, args);
+            if (!(result instanceof Statement statement) || result instanceof CallableStatement) {
+                return result;
+            }
+            String sql = name.equals("prepareStatement") ? (String) args[0] : null;
+            Class<?> type = statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, sql, proxy, sample()));
+        }
+    }
+
+    /**
+     * Times the executions of a statement and wraps its result sets; if it was sampled, also records the
+     * parameters bound to it.
+     */
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final Object connection;
+        private final boolean sampled;
+        private Object[] parameters = new Object[8];
+        private int parameterCount;
+        private Object[] firstBatchRow;
+        private int batchSize;
+        private Trace open;
+
+        private StatementHandler(Statement target, String preparedSql, Object connection, boolean sampled) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+            this.sampled = sampled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (sampled && name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && method.getDeclaringClass() == PreparedStatement.class) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+                return StatementTracer.invoke(target, method, args);
+            }
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "TracedStatement[" + target + "]";
+                case "getConnection":
+                    return connection;
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                case "clearParameters":
+                    parameterCount = 0;
+                    return StatementTracer.invoke(target, method, args);
+                case "addBatch":
+                    if (batchSize++ == 0 && sampled) {
+                        firstBatchRow = Arrays.copyOf(parameters, parameterCount);
+                    }
+                    return StatementTracer.invoke(target, method, args);
+                case "clearBatch":
+                    batchSize = 0;
+                    firstBatchRow = null;
+                    return StatementTracer.invoke(target, method, args);
+                case "close":
+                    finishOpen();
+                    return StatementTracer.invoke(target, method, args);
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+                        "executeBatch", "executeLargeBatch":
+                    return execute(method, args);
+                case "getResultSet":
+                    Object resultSet = StatementTracer.invoke(target, method, args);
+                    return open != null && resultSet != null ? wrapResultSet((ResultSet) resultSet, open) : resultSet;
+                default:
+                    return StatementTracer.invoke(target, method, args);
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishOpen();
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long start = System.nanoTime();
+            Object result = StatementTracer.invoke(target, method, args);
+            Trace trace = new Trace(sql == null ? "<unknown>" : sql, sampled, Arrays.copyOf(parameters, parameterCount),
+                    firstBatchRow, batchSize, System.nanoTime() - start);
+            if (method.getName().contains("Batch")) {
+                batchSize = 0;
+                firstBatchRow = null;
+            }
+
+            if (result instanceof ResultSet resultSet) {
+                open = trace;
+                return wrapResultSet(resultSet, trace);
+            }
+            if (result instanceof Boolean hasResultSet && hasResultSet) {
+                open = trace;
+                return result;
+            }
+            trace.rows = updateCount(result);
+            report(trace);
+            return result;
+        }
+
+        private long updateCount(Object result) throws Exception {
+            if (result instanceof int[] counts) {
+                return Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+            }
+            if (result instanceof long[] counts) {
+                return Arrays.stream(counts).filter(count -> count > 0).sum();
+            }
+            if (result instanceof Number count) {
+                return count.longValue();
+            }
+            return Math.max(0, target.getUpdateCount());
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet, Trace trace) {
+            return (ResultSet) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, new ResultSetHandler(resultSet, trace, this));
+        }
+
+        /**
+         * Reports the query whose result set is still open, if any.
+         */
+
+        private void finishOpen() {
+            Trace trace = open;
+            if (trace != null) {
+                open = null;
+                report(trace);
+            }
+        }
+    }
+
+    /**
+     * Times the row fetches of a traced query and reports the query when the result set is closed.
+     */
+
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Trace trace;
+        private final StatementHandler statement;
+
+        private ResultSetHandler(ResultSet target, Trace trace, StatementHandler statement) {
+            this.target = target;
+            this.trace = trace;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    long start = System.nanoTime();
+                    Object hasRow = StatementTracer.invoke(target, method, args);
+                    trace.fetchNanos += System.nanoTime() - start;
+                    if ((Boolean) hasRow) {
+                        trace.rows++;
+                    }
+                    return hasRow;
+                case "close":
+                    if (statement.open == trace) {
+                        statement.finishOpen();
+                    }
+                    return StatementTracer.invoke(target, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "TracedResultSet[" + target + "]";
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                default:
+                    return StatementTracer.invoke(target, method, args);
+            }
+        }
+    }
+
+    /**
+     * One line per slow statement: local time, thread and the statement report.
+     */
+
+    private static final class SlowQueryFormatter extends Formatter {
+        private static final DateTimeFormatter TIME =
+                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+        @Override
+        public String format(LogRecord record) {
+            return TIME.format(Instant.ofEpochMilli(record.getMillis())) + " [" + Thread.currentThread().getName()
+                    + "] SLOW " + formatMessage(record) + System.lineSeparator();
+        }
+    }
+}
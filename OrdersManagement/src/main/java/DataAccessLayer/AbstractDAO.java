@@ -1,14 +1,22 @@
 package DataAccessLayer;
 
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.*;
+import java.lang.reflect.ParameterizedType;
 import java.sql.*;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import Connection.ConnectionFactory;
+import Monitoring.Metrics;
+import Monitoring.OperationStats;
+import Monitoring.SqlExecutionEvent;
 
 /**
  * Generic abstract class for Data Access Objects (DAO), providing common CRUD operations
@@ -16,30 +24,105 @@ import Connection.ConnectionFactory;
  * @param <T> the type of the entity this DAO will manage
  * This class uses reflection to dynamically map database table rows to Java objects of type {@code T},
  * assuming the class name matches the table name and fields match column names.
+ * Every operation records its call count, row count and latency in the {@link Metrics} of the entity,
+ * published over JMX, and emits a {@link SqlExecutionEvent} for Java Flight Recorder.
  */
 
 public class AbstractDAO<T> {
     protected static final Logger LOGGER = Logger.getLogger(AbstractDAO.class.getName());
+
+    /**
+     * Default number of rows sent to the server per {@code executeBatch} call.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
     private final Class<T> type;
+    private final EntityMetadata<T> metadata;
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile EntityCache<T> cache;
+
+    private final OperationStats findAllStats;
+    private final OperationStats findByIdStats;
+    private final OperationStats findByIdsStats;
+    private final OperationStats findPageStats;
+    private final OperationStats insertStats;
+    private final OperationStats updateStats;
+    private final OperationStats deleteStats;
+    private final OperationStats insertAllStats;
+    private final OperationStats updateAllStats;
+    private final OperationStats deleteAllStats;
 
     /**
-     * Constructor that determines the actual class type for the generic parameter {@code T}.
+     * Constructor that determines the actual class type for the generic parameter {@code T}
+     * and builds its {@link EntityMetadata} once.
      */
 
     @SuppressWarnings("unchecked")
     public AbstractDAO() {
         this.type = (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+        this.metadata = EntityMetadata.of(type);
+        String entity = type.getSimpleName();
+        this.findAllStats = Metrics.operation(entity, "findAll");
+        this.findByIdStats = Metrics.operation(entity, "findById");
+        this.findByIdsStats = Metrics.operation(entity, "findByIds");
+        this.findPageStats = Metrics.operation(entity, "findPage");
+        this.insertStats = Metrics.operation(entity, "insert");
+        this.updateStats = Metrics.operation(entity, "update");
+        this.deleteStats = Metrics.operation(entity, "delete");
+        this.insertAllStats = Metrics.operation(entity, "insertAll");
+        this.updateAllStats = Metrics.operation(entity, "updateAll");
+        this.deleteAllStats = Metrics.operation(entity, "deleteAll");
     }
 
     /**
-     * Constructs a SELECT query for a specific field.
+     * Returns the precomputed SQL and field accessors for the entity managed by this DAO.
      *
-     * @param field the field/column name
-     * @return the constructed SQL SELECT query
+     * @return the entity metadata
      */
 
-    private String createSelectQuery(String field) {
-        return "SELECT * FROM " + type.getSimpleName() + " WHERE " + field + " = ?";
+    protected EntityMetadata<T> getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Turns on the second-level entity cache for this DAO. {@link #findById(int)} and {@link #findByIds(Collection)}
+     * are then served from the cache, {@link #findAll()} fills it, and every write through this DAO invalidates
+     * the affected IDs. Subclasses usually call this from their constructor, passing one cache shared by every
+     * instance of the subclass, so that an invalidation through one DAO reaches the lookups of all the others.
+     * <p>
+     * Cached entities are shared instances. Rows changed by SQL that bypasses this DAO (or by
+     * {@code ON DELETE CASCADE}) are not seen until the entry is evicted, expires or is invalidated.
+     *
+     * @param cache the cache to use, or {@code null} to turn caching off
+     */
+
+    protected void enableCache(EntityCache<T> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the entity cache of this DAO, e.g. to read its hit rate or to invalidate it
+     * after rows were changed with SQL that bypassed this DAO.
+     *
+     * @return the cache, or {@code null} if caching is not enabled
+     */
+
+    public EntityCache<T> getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the number of rows sent per {@code executeBatch} call by the batch operations.
+     *
+     * @param batchSize the chunk size, must be positive
+     * @throws IllegalArgumentException if {@code batchSize} is not positive
+     */
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0.");
+        }
+        this.batchSize = batchSize;
     }
 
     /**
@@ -53,14 +136,24 @@ public class AbstractDAO<T> {
         Connection connection = null;
         PreparedStatement statement = null;
         ResultSet resultSet = null;
-        String query = "SELECT * FROM " + type.getSimpleName();
+        EntityCache<T> cache = this.cache;
+        SqlExecutionEvent execution = findAllStats.begin();
 
         try {
             connection = ConnectionFactory.getConnection();
-            statement = connection.prepareStatement(query);
+            statement = connection.prepareStatement(metadata.getSelectAllSql());
+            long[] stamps = cache != null ? cache.stamps() : null;
             resultSet = statement.executeQuery();
-            return createObjects(resultSet);
+            List<T> all = createObjects(resultSet);
+            findAllStats.success(execution, all.size());
+            if (stamps != null && metadata.hasId()) {
+                for (T t : all) {
+                    cache.putIfUnchanged(metadata.getId(t), t, stamps);
+                }
+            }
+            return all;
         } catch (SQLException e) {
+            findAllStats.failure(execution);
             LOGGER.log(Level.WARNING, type.getName() + "DAO:findAll " + e.getMessage());
         } finally {
             ConnectionFactory.close(resultSet);
@@ -72,150 +165,414 @@ public class AbstractDAO<T> {
     }
 
     /**
-     * Finds an object of type {@code T} by its ID.
+     * Streams all records of the table with a server-side cursor, so memory use does not grow with the
+     * table size. The pooled connection stays borrowed until the stream is closed:
+     * <pre>{@code
+     * try (Stream<OrderItem> items = orderItemDAO.stream()) {
+     *     items.forEach(...);
+     * }
+     * }</pre>
+     *
+     * @return a lazy stream of objects of type {@code T}
+     * @throws SQLException if the query cannot be executed
+     */
+
+    public Stream<T> stream() throws SQLException {
+        return QueryStream.open(metadata.getSelectAllSql(), statement -> { },
+                resultSet -> RowMapper.of(type, resultSet)::mapRow);
+    }
+
+    /**
+     * Passes every record of the table to {@code action}, one row at a time, using {@link #stream()}.
+     *
+     * @param action the action applied to each object
+     * @throws SQLException if the query cannot be executed
+     */
+
+    public void forEach(Consumer<? super T> action) throws SQLException {
+        try (Stream<T> rows = stream()) {
+            rows.forEach(action);
+        }
+    }
+
+    /**
+     * Finds an object of type {@code T} by its ID. If caching is enabled, a cached entity is returned
+     * without borrowing a connection.
      *
      * @param id the ID of the object
      * @return the found object, or {@code null} if not found
      */
 
     public T findById(int id) {
+        T cached = findCached(id);
+        if (cached != null) {
+            return cached;
+        }
         Connection connection = null;
-        PreparedStatement statement = null;
-        ResultSet resultSet = null;
-        String query = createSelectQuery("id");
 
         try {
             connection = ConnectionFactory.getConnection();
-            statement = connection.prepareStatement(query);
-            statement.setInt(1, id);
-            resultSet = statement.executeQuery();
-
-            List<T> results = createObjects(resultSet);
-            return results.isEmpty() ? null : results.get(0);
+            return load(connection, id);
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, type.getName() + "DAO:findById " + e.getMessage());
         } finally {
-            ConnectionFactory.close(resultSet);
-            ConnectionFactory.close(statement);
             ConnectionFactory.close(connection);
         }
         return null;
     }
 
     /**
-     * Creates a list of objects from a ResultSet by mapping each row to a Java object of type {@code T}.
+     * Finds an object of type {@code T} by its ID using the caller's connection,
+     * so the read can take part in the caller's transaction.
+     * <p>
+     * If caching is enabled, a cached entity is returned without a query, inside a transaction as well.
+     * A loaded entity is only cached when the connection is in auto-commit mode, so rows read inside a
+     * transaction that may still roll back never reach the cache; such a caller takes a
+     * {@link #cacheStamp(int)} before the read and passes the entity to {@link #cacheCommitted(Object, long)}
+     * once it committed.
      *
-     * @param resultSet the ResultSet containing database rows
-     * @return a list of mapped objects
+     * @param connection the connection to use; it is not closed
+     * @param id         the ID of the object
+     * @return the found object, or {@code null} if not found
+     * @throws SQLException if a database access error occurs
+     */
+
+    public T findById(Connection connection, int id) throws SQLException {
+        T cached = findCached(id);
+        return cached != null ? cached : load(connection, id);
+    }
+
+    /**
+     * Returns the cache stamp of an entity, to be taken before reading it inside a transaction and passed
+     * to {@link #cacheCommitted(Object, long)} after the commit.
+     *
+     * @param id the ID of the entity
+     * @return the stamp, or 0 if caching is not enabled
+     */
+
+    public long cacheStamp(int id) {
+        EntityCache<T> cache = this.cache;
+        return cache != null ? cache.stamp(id) : 0;
+    }
+
+    /**
+     * Caches an entity that was read inside a transaction, once the transaction committed, unless it was
+     * invalidated since {@code stamp} was taken.
+     *
+     * @param t     the entity read, may be {@code null}
+     * @param stamp the stamp returned by {@link #cacheStamp(int)} before the read
+     */
+
+    public void cacheCommitted(T t, long stamp) {
+        EntityCache<T> cache = this.cache;
+        if (cache != null && t != null && metadata.hasId()) {
+            cache.putIfUnchanged(metadata.getId(t), t, stamp);
+        }
+    }
+
+    /**
+     * Returns the cached entity with {@code id}, recording a hit as a {@code findById} call, or {@code null}.
      */
 
-    private List<T> createObjects(ResultSet resultSet) {
-        List<T> list = new ArrayList<>();
-        Constructor<T> ctor = null;
+    private T findCached(int id) {
+        EntityCache<T> cache = this.cache;
+        T cached = cache != null ? cache.get(id) : null;
+        if (cached != null) {
+            findByIdStats.success(findByIdStats.begin(), 1);
+        }
+        return cached;
+    }
+
+    /**
+     * Reads an entity that missed the cache, caching it if the connection is in auto-commit mode.
+     */
 
-        for (Constructor<?> c : type.getDeclaredConstructors()) {
-            if (c.getParameterCount() == 0) {
-                ctor = (Constructor<T>) c;
-                break;
+    private T load(Connection connection, int id) throws SQLException {
+        EntityCache<T> cache = this.cache;
+        long stamp = cache != null ? cache.stamp(id) : 0;
+        SqlExecutionEvent execution = findByIdStats.begin();
+
+        T found;
+        try (PreparedStatement statement = connection.prepareStatement(metadata.getSelectByIdSql())) {
+            statement.setInt(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<T> results = createObjects(resultSet);
+                found = results.isEmpty() ? null : results.get(0);
             }
+        } catch (SQLException e) {
+            findByIdStats.failure(execution);
+            throw e;
         }
+        findByIdStats.success(execution, found == null ? 0 : 1);
+        if (cache != null && found != null && connection.getAutoCommit()) {
+            cache.putIfUnchanged(id, found, stamp);
+        }
+        return found;
+    }
 
-        if (ctor == null) {
-            throw new IllegalArgumentException("No no-arg constructor found for class " + type.getName());
+    /**
+     * Finds all objects of type {@code T} whose ID is in {@code ids}, using as few queries as possible.
+     * <p>
+     * The distinct IDs are sent in {@code WHERE id IN (...)} chunks. Each chunk uses the smallest of a few
+     * fixed statement shapes (1, 8, 32 or 128 placeholders) that fits, padding the list by repeating the
+     * last ID, so the server only ever sees four statement texts per table. If caching is enabled,
+     * only the IDs missing from the cache are queried.
+     *
+     * @param ids the IDs to look up; duplicates are ignored
+     * @return the found objects keyed by ID, in the order of {@code ids}; missing IDs are absent
+     * @throws SQLException if a query fails; no partial result is returned, so a failed lookup is never
+     *                      mistaken for rows that do not exist
+     */
+
+    public Map<Integer, T> findByIds(Collection<Integer> ids) throws SQLException {
+        int[] distinct = ids.stream().mapToInt(Integer::intValue).distinct().toArray();
+        Map<Integer, T> found = new LinkedHashMap<>();
+        if (distinct.length == 0) {
+            return found;
         }
 
-        try {
-            ResultSetMetaData metaData = resultSet.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            List<String> columnNames = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                columnNames.add(metaData.getColumnName(i));
+        Map<Integer, T> byId = new HashMap<>();
+        EntityCache<T> cache = this.cache;
+        long[] stamps = null;
+        if (cache != null) {
+            int missing = 0;
+            for (int id : distinct) {
+                T cached = cache.get(id);
+                if (cached != null) {
+                    byId.put(id, cached);
+                } else {
+                    distinct[missing++] = id;
+                }
+            }
+            distinct = Arrays.copyOf(distinct, missing);
+            stamps = new long[missing];
+            for (int i = 0; i < missing; i++) {
+                stamps[i] = cache.stamp(distinct[i]);
             }
+        }
 
-            while (resultSet.next()) {
-                ctor.setAccessible(true);
-                T instance = ctor.newInstance();
+        SqlExecutionEvent execution = findByIdsStats.begin();
+        Connection connection = null;
+        try {
+            if (distinct.length > 0) {
+                connection = ConnectionFactory.getConnection();
+                if (connection == null) {
+                    throw new SQLException("No database connection");
+                }
+            }
+            int[] shapes = EntityMetadata.ID_LIST_SHAPES;
+            int offset = 0;
+            while (offset < distinct.length) {
+                int remaining = distinct.length - offset;
+                int shapeIndex = 0;
+                while (shapeIndex < shapes.length - 1 && shapes[shapeIndex] < remaining) {
+                    shapeIndex++;
+                }
+                int shape = shapes[shapeIndex];
+                int count = Math.min(shape, remaining);
 
-                for (Field field : type.getDeclaredFields()) {
-                    String fieldName = field.getName();
-                    if (!columnNames.contains(fieldName)) {
-                        continue;
+                try (PreparedStatement statement = connection.prepareStatement(metadata.getSelectByIdsSql(shapeIndex))) {
+                    for (int i = 0; i < shape; i++) {
+                        statement.setInt(i + 1, distinct[offset + Math.min(i, count - 1)]);
                     }
-
-                    Object value = resultSet.getObject(fieldName);
-                    PropertyDescriptor propertyDescriptor = new PropertyDescriptor(fieldName, type);
-                    Method method = propertyDescriptor.getWriteMethod();
-                    if (method != null) {
-                        method.invoke(instance, value);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        for (T t : createObjects(resultSet)) {
+                            byId.put(metadata.getId(t), t);
+                        }
                     }
                 }
+                offset += count;
+            }
+            findByIdsStats.success(execution, byId.size());
+        } catch (SQLException e) {
+            findByIdsStats.failure(execution);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findByIds " + e.getMessage());
+            throw e;
+        } finally {
+            ConnectionFactory.close(connection);
+        }
 
-                list.add(instance);
+        if (cache != null) {
+            for (int i = 0; i < distinct.length; i++) {
+                T t = byId.get(distinct[i]);
+                if (t != null) {
+                    cache.putIfUnchanged(distinct[i], t, stamps[i]);
+                }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        for (int id : ids) {
+            T t = byId.get(id);
+            if (t != null) {
+                found.put(id, t);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the page of records whose ID is greater than {@code afterId}, in ascending ID order.
+     * Start with {@code afterId = 0} and continue with {@link Page#nextCursor()}.
+     *
+     * @param afterId the cursor: the ID of the last record of the previous page
+     * @param limit   the maximum number of records in the page
+     * @return the page, or {@code null} if a database error occurs
+     * @throws IllegalArgumentException if {@code limit} is not positive
+     */
 
-        return list;
+    public Page<T> findPage(int afterId, int limit) {
+        return findPage(metadata.getSelectPageSql(), afterId, limit, "findPage");
     }
 
     /**
-     * Inserts an object of type {@code T} into the corresponding database table.
+     * Returns the page of records whose ID is smaller than {@code beforeId}, in descending ID order
+     * (newest first). Start with {@code beforeId = Integer.MAX_VALUE} and continue with {@link Page#nextCursor()}.
      *
-     * @param t the object to insert
-     * @return the inserted object
+     * @param beforeId the cursor: the ID of the last record of the previous page
+     * @param limit    the maximum number of records in the page
+     * @return the page, or {@code null} if a database error occurs
+     * @throws IllegalArgumentException if {@code limit} is not positive
      */
 
-    public T insert(T t) {
-        Connection connection = null;
-        PreparedStatement statement = null;
+    public Page<T> findPageDescending(int beforeId, int limit) {
+        return findPage(metadata.getSelectPageDescendingSql(), beforeId, limit, "findPageDescending");
+    }
 
-        Field[] fields = type.getDeclaredFields();
-        StringBuilder query = new StringBuilder("INSERT INTO " + type.getSimpleName() + " (");
+    /**
+     * Returns the row count of the table and the cursor of every page of {@code pageSize} rows in ascending
+     * ID order, so any page can then be read directly with {@link #findPage(int, int)}.
+     *
+     * @param pageSize the number of rows per page
+     * @return the page index, or {@code null} if a database error occurs
+     * @throws IllegalArgumentException if {@code pageSize} is not positive
+     */
 
-        List<Field> dbFields = new ArrayList<>();
-        for (Field field : fields) {
-            if (!List.class.isAssignableFrom(field.getType())) {
-                dbFields.add(field);
-            }
-        }
+    public PageIndex findPageIndex(int pageSize) {
+        return findPageIndex(pageSize, null);
+    }
 
-        for (int i = 0; i < dbFields.size(); i++) {
-            query.append(dbFields.get(i).getName());
-            if (i < dbFields.size() - 1) {
-                query.append(", ");
-            }
+    /**
+     * Extends a page index with the rows added since it was built, reading only the rows from its last
+     * page on. Rows deleted before that page are not noticed; use {@link #findPageIndex(int)} after deletes.
+     *
+     * @param pageSize the number of rows per page
+     * @param previous the index to extend, or {@code null} to build a new one
+     * @return the page index, or {@code null} if a database error occurs
+     * @throws IllegalArgumentException if {@code pageSize} is not positive
+     */
+
+    public PageIndex findPageIndex(int pageSize, PageIndex previous) {
+        Connection connection = null;
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            return PageIndex.load(connection, metadata.getPageIndexSql(), previous, pageSize);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findPageIndex " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(connection);
         }
+        return null;
+    }
 
-        query.append(") VALUES (");
-        for (int i = 0; i < dbFields.size(); i++) {
-            query.append("?");
-            if (i < dbFields.size() - 1) {
-                query.append(", ");
-            }
+    /**
+     * Runs a keyset page query, fetching one extra row to know whether another page follows.
+     */
+
+    private Page<T> findPage(String query, int cursor, int limit, String operation) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than 0.");
         }
-        query.append(")");
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        SqlExecutionEvent execution = findPageStats.begin();
 
         try {
             connection = ConnectionFactory.getConnection();
-            statement = connection.prepareStatement(query.toString());
+            statement = connection.prepareStatement(query);
+            statement.setInt(1, cursor);
+            statement.setInt(2, limit + 1);
+            resultSet = statement.executeQuery();
+            Page<T> page = Page.of(createObjects(resultSet), limit, cursor, metadata::getId);
+            findPageStats.success(execution, page.items().size());
+            return page;
+        } catch (SQLException e) {
+            findPageStats.failure(execution);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:" + operation + " " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return null;
+    }
 
-            for (int i = 0; i < dbFields.size(); i++) {
-                dbFields.get(i).setAccessible(true);
-                statement.setObject(i + 1, dbFields.get(i).get(t));
-            }
+    /**
+     * Creates a list of objects from a ResultSet by mapping each row to a Java object of type {@code T}.
+     * The row mapper is compiled once per entity class and result set shape, see {@link RowMapper}.
+     *
+     * @param resultSet the ResultSet containing database rows
+     * @return a list of mapped objects
+     * @throws SQLException if the ResultSet cannot be read
+     */
+
+    private List<T> createObjects(ResultSet resultSet) throws SQLException {
+        return RowMapper.of(type, resultSet).mapAll(resultSet);
+    }
 
-            statement.executeUpdate();
-        } catch (SQLException | IllegalAccessException e) {
+    /**
+     * Inserts an object of type {@code T} into the corresponding database table.
+     * The ID generated by the database is stored back into the object.
+     *
+     * @param t the object to insert
+     * @return the inserted object
+     */
+
+    public T insert(T t) {
+        Connection connection = null;
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            insert(connection, t);
+        } catch (SQLException e) {
             LOGGER.log(Level.WARNING, type.getName() + "DAO:insert " + e.getMessage());
         } finally {
-            ConnectionFactory.close(statement);
             ConnectionFactory.close(connection);
         }
 
         return t;
     }
 
+    /**
+     * Inserts an object of type {@code T} using the caller's connection.
+     * The ID generated by the database is stored back into the object.
+     *
+     * @param connection the connection to use; it is not closed
+     * @param t          the object to insert
+     * @return the inserted object
+     * @throws SQLException if a database access error occurs
+     */
+
+    public T insert(Connection connection, T t) throws SQLException {
+        SqlExecutionEvent execution = insertStats.begin();
+        try (PreparedStatement statement = connection.prepareStatement(metadata.getInsertSql(), Statement.RETURN_GENERATED_KEYS)) {
+            metadata.bindInsert(statement, t);
+            int rows = statement.executeUpdate();
+
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (metadata.hasId() && generatedKeys.next()) {
+                    metadata.setId(t, generatedKeys.getInt(1));
+                }
+            }
+            insertStats.success(execution, rows);
+        } catch (SQLException e) {
+            insertStats.failure(execution);
+            throw e;
+        }
+        invalidate(t);
+        return t;
+    }
+
     /**
      * Updates an existing object in the database.
      * The object must have an {@code id} field used to locate the row to update.
@@ -226,73 +583,306 @@ public class AbstractDAO<T> {
 
     public T update(T t) {
         Connection connection = null;
-        PreparedStatement statement = null;
-        Field[] fields = type.getDeclaredFields();
-
-        StringBuilder query = new StringBuilder("UPDATE " + type.getSimpleName() + " SET ");
-        int count = 0;
-        for (Field field : fields) {
-            if (!field.getName().equalsIgnoreCase("id") && !List.class.isAssignableFrom(field.getType())) {
-                if (count > 0) {
-                    query.append(", ");
-                }
-                query.append(field.getName()).append(" = ?");
-                count++;
-            }
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            update(connection, t);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:update " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(connection);
         }
-        query.append(" WHERE id = ?");
+
+        return t;
+    }
+
+    /**
+     * Updates an existing object using the caller's connection.
+     * <p>
+     * The cached entity is invalidated right away. If the connection is in a transaction, a concurrent reader
+     * can still cache the old row before the commit, so the caller must call {@link #invalidate(int)} again
+     * after committing.
+     *
+     * @param connection the connection to use; it is not closed
+     * @param t          the object with updated values
+     * @return the number of rows affected
+     * @throws SQLException if a database access error occurs
+     */
+
+    public int update(Connection connection, T t) throws SQLException {
+        SqlExecutionEvent execution = updateStats.begin();
+        try (PreparedStatement statement = connection.prepareStatement(metadata.getUpdateSql())) {
+            metadata.bindUpdate(statement, t);
+            int rows = statement.executeUpdate();
+            updateStats.success(execution, rows);
+            return rows;
+        } catch (SQLException e) {
+            updateStats.failure(execution);
+            throw e;
+        } finally {
+            invalidate(t);
+        }
+    }
+
+    /**
+     * Deletes a record from the database based on its ID.
+     *
+     * @param id the ID of the record to delete
+     */
+
+    public void delete(int id) {
+        Connection connection = null;
 
         try {
             connection = ConnectionFactory.getConnection();
-            statement = connection.prepareStatement(query.toString());
+            delete(connection, id);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:delete " + e.getMessage());
+        } finally {
+            invalidate(id);
+            ConnectionFactory.close(connection);
+        }
+    }
+
+    /**
+     * Deletes a record using the caller's connection.
+     * <p>
+     * The cached entity is invalidated right away. If the connection is in a transaction, a concurrent reader
+     * can still cache the old row before the commit, so the caller must call {@link #invalidate(int)} again
+     * after committing.
+     *
+     * @param connection the connection to use; it is not closed
+     * @param id         the ID of the record to delete
+     * @return the number of rows affected
+     * @throws SQLException if a database access error occurs
+     */
 
-            int index = 1;
-            Object idValue = null;
+    public int delete(Connection connection, int id) throws SQLException {
+        SqlExecutionEvent execution = deleteStats.begin();
+        try (PreparedStatement statement = connection.prepareStatement(metadata.getDeleteSql())) {
+            statement.setInt(1, id);
+            int rows = statement.executeUpdate();
+            deleteStats.success(execution, rows);
+            return rows;
+        } catch (SQLException e) {
+            deleteStats.failure(execution);
+            throw e;
+        } finally {
+            invalidate(id);
+        }
+    }
 
-            for (Field field : fields) {
-                field.setAccessible(true);
-                if (!field.getName().equalsIgnoreCase("id") && !List.class.isAssignableFrom(field.getType())) {
-                    statement.setObject(index++, field.get(t));
-                } else if (field.getName().equalsIgnoreCase("id")) {
-                    idValue = field.get(t);
+    /**
+     * Inserts all objects using JDBC batching over a single connection and a single transaction.
+     * Rows are sent in chunks of {@link #setBatchSize(int) batchSize}; with the MySQL driver's
+     * {@code rewriteBatchedStatements} each chunk becomes one multi-row INSERT.
+     * The generated IDs are stored back into the objects, in input order.
+     *
+     * @param items the objects to insert
+     * @return the same list, with generated IDs set
+     */
+
+    public List<T> insertAll(List<T> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        Connection connection = null;
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            insertAll(connection, items);
+            connection.commit();
+        } catch (SQLException e) {
+            rollback(connection);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:insertAll " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+
+        return items;
+    }
+
+    /**
+     * Inserts all objects with JDBC batching using the caller's connection and transaction.
+     * The generated IDs are stored back into the objects, in input order.
+     *
+     * @param connection the connection to use; it is neither committed nor closed
+     * @param items      the objects to insert
+     * @return the same list, with generated IDs set
+     * @throws SQLException if a database access error occurs
+     */
+
+    public List<T> insertAll(Connection connection, List<T> items) throws SQLException {
+        SqlExecutionEvent execution = insertAllStats.begin();
+        try (PreparedStatement statement = connection.prepareStatement(metadata.getInsertSql(), Statement.RETURN_GENERATED_KEYS)) {
+            int chunkStart = 0;
+            for (int i = 0; i < items.size(); i++) {
+                metadata.bindInsert(statement, items.get(i));
+                statement.addBatch();
+                if (i - chunkStart + 1 == batchSize || i == items.size() - 1) {
+                    statement.executeBatch();
+                    readGeneratedKeys(statement, items, chunkStart, i + 1);
+                    chunkStart = i + 1;
                 }
             }
+            insertAllStats.success(execution, items.size());
+        } catch (SQLException e) {
+            insertAllStats.failure(execution);
+            throw e;
+        }
+        return items;
+    }
+
+    /**
+     * Updates all objects using JDBC batching over a single connection and a single transaction.
+     *
+     * @param items the objects with updated values
+     * @return the same list
+     */
 
-            statement.setObject(index, idValue);
-            statement.executeUpdate();
+    public List<T> updateAll(List<T> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        Connection connection = null;
 
-        } catch (SQLException | IllegalAccessException e) {
-            LOGGER.log(Level.WARNING, type.getName() + "DAO:update " + e.getMessage());
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            updateAll(connection, items);
+            connection.commit();
+        } catch (SQLException e) {
+            rollback(connection);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:updateAll " + e.getMessage());
         } finally {
-            ConnectionFactory.close(statement);
+            // invalidate again after the commit: a concurrent reader may have cached the old rows meanwhile
+            items.forEach(this::invalidate);
             ConnectionFactory.close(connection);
         }
 
-        return t;
+        return items;
     }
 
     /**
-     * Deletes a record from the database based on its ID.
+     * Updates all objects with JDBC batching using the caller's connection and transaction.
      *
-     * @param id the ID of the record to delete
+     * @param connection the connection to use; it is neither committed nor closed
+     * @param items      the objects with updated values
+     * @return the same list
+     * @throws SQLException if a database access error occurs
      */
 
-    public void delete(int id) {
+    public List<T> updateAll(Connection connection, List<T> items) throws SQLException {
+        SqlExecutionEvent execution = updateAllStats.begin();
+        try (PreparedStatement statement = connection.prepareStatement(metadata.getUpdateSql())) {
+            for (int i = 0; i < items.size(); i++) {
+                metadata.bindUpdate(statement, items.get(i));
+                statement.addBatch();
+                if ((i + 1) % batchSize == 0 || i == items.size() - 1) {
+                    statement.executeBatch();
+                }
+            }
+            updateAllStats.success(execution, items.size());
+        } catch (SQLException e) {
+            updateAllStats.failure(execution);
+            throw e;
+        } finally {
+            items.forEach(this::invalidate);
+        }
+        return items;
+    }
+
+    /**
+     * Deletes all records with the given IDs using JDBC batching over a single connection
+     * and a single transaction.
+     *
+     * @param ids the IDs of the records to delete
+     */
+
+    public void deleteAll(int[] ids) {
+        if (ids.length == 0) {
+            return;
+        }
         Connection connection = null;
         PreparedStatement statement = null;
-
-        String query = "DELETE FROM " + type.getSimpleName() + " WHERE id = ?";
+        SqlExecutionEvent execution = deleteAllStats.begin();
 
         try {
             connection = ConnectionFactory.getConnection();
-            statement = connection.prepareStatement(query);
-            statement.setInt(1, id);
-            statement.executeUpdate();
+            connection.setAutoCommit(false);
+            statement = connection.prepareStatement(metadata.getDeleteSql());
+
+            for (int i = 0; i < ids.length; i++) {
+                statement.setInt(1, ids[i]);
+                statement.addBatch();
+                if ((i + 1) % batchSize == 0 || i == ids.length - 1) {
+                    statement.executeBatch();
+                }
+            }
+            connection.commit();
+            deleteAllStats.success(execution, ids.length);
         } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, type.getName() + "DAO:delete " + e.getMessage());
+            deleteAllStats.failure(execution);
+            rollback(connection);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:deleteAll " + e.getMessage());
         } finally {
+            for (int id : ids) {
+                invalidate(id);
+            }
             ConnectionFactory.close(statement);
             ConnectionFactory.close(connection);
         }
     }
+
+    /**
+     * Removes the entity with {@code id} from the cache, if caching is enabled. Callers that change rows
+     * inside a transaction with the {@link Connection} variants call this after the commit.
+     *
+     * @param id the ID of the entity
+     */
+
+    public void invalidate(int id) {
+        EntityCache<T> cache = this.cache;
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    private void invalidate(T t) {
+        if (cache != null && metadata.hasId()) {
+            invalidate(metadata.getId(t));
+        }
+    }
+
+    /**
+     * Copies the keys generated by the last {@code executeBatch} into {@code items[from, to)}.
+     */
+
+    private void readGeneratedKeys(PreparedStatement statement, List<T> items, int from, int to) throws SQLException {
+        if (!metadata.hasId()) {
+            return;
+        }
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            for (int i = from; i < to && keys.next(); i++) {
+                metadata.setId(items.get(i), keys.getInt(1));
+            }
+        }
+    }
+
+    /**
+     * Rolls back the current transaction of {@code connection}, if any.
+     *
+     * @param connection the connection, may be {@code null}
+     */
+
+    protected void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, type.getName() + "DAO:rollback " + e.getMessage());
+            }
+        }
+    }
 }
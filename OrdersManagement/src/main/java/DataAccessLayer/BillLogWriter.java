@@ -0,0 +1,357 @@
+package DataAccessLayer;
+
+import Connection.ConnectionFactory;
+import Model.Bill;
+import Monitoring.Metrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only writer that stores bills in the {@code log} table in the background, with group commit.
+ * <p>
+ * {@link #append(Bill)} only puts the bill on a bounded queue, so the log insert is no longer part of the
+ * latency of placing an order. A single background thread drains the queue into batches and writes each
+ * batch with one multi-row INSERT and one commit. A batch is flushed once it holds {@code maxBatchSize} bills
+ * or {@code flushIntervalMillis} after its first bill was queued, whichever comes first.
+ *
+ * <p>When the queue is full, {@code append} blocks for up to {@code appendTimeoutMillis} (backpressure);
+ * if the queue is still full, the bill is written synchronously on the caller's thread, so no bill is dropped.
+ * The queue is flushed completely on {@link #close()}, which runs automatically on JVM shutdown before the
+ * connection pool is closed. A batch that still fails after {@value #MAX_ATTEMPTS} attempts is logged at
+ * {@link Level#SEVERE} with its order IDs.</p>
+ *
+ * <p>The application-wide writer publishes its queue depth, counters and flush latency as
+ * {@code OrdersManagement:type=BillLogWriter} (see {@link BillLogWriterMXBean}).</p>
+ */
+
+public class BillLogWriter implements AutoCloseable, BillLogWriterMXBean {
+    private static final Logger LOGGER = Logger.getLogger(BillLogWriter.class.getName());
+
+    /**
+     * Default capacity of the queue.
+     */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    /**
+     * Default maximum number of bills per batch.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+    /**
+     * Default maximum time, in milliseconds, a queued bill waits for its batch to fill.
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 200;
+
+    /**
+     * Default time, in milliseconds, {@link #append(Bill)} waits for room in a full queue.
+     */
+    public static final long DEFAULT_APPEND_TIMEOUT_MS = 2_000;
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 100;
+    private static final long CLOSE_TIMEOUT_MS = 10_000;
+
+    private static final BillLogWriter singleInstance = new BillLogWriter(new LogDAO(), DEFAULT_CAPACITY,
+            DEFAULT_MAX_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MS, DEFAULT_APPEND_TIMEOUT_MS);
+
+    static {
+        Metrics.register("type=BillLogWriter", singleInstance);
+    }
+
+    private final LogDAO logDAO;
+    private final BlockingQueue<Bill> queue;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final long appendTimeoutMillis;
+    private final Thread worker;
+    private volatile boolean closed;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder synchronousWrites = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    /**
+     * Creates a writer and starts its background thread.
+     *
+     * @param logDAO              the DAO used to insert the batches
+     * @param capacity            the capacity of the queue
+     * @param maxBatchSize        the maximum number of bills per batch
+     * @param flushIntervalMillis the maximum time a queued bill waits for its batch to fill
+     * @param appendTimeoutMillis the time {@link #append(Bill)} waits for room in a full queue
+     */
+
+    BillLogWriter(LogDAO logDAO, int capacity, int maxBatchSize, long flushIntervalMillis, long appendTimeoutMillis) {
+        if (capacity <= 0 || maxBatchSize <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Capacity, batch size and flush interval must be greater than 0.");
+        }
+        this.logDAO = logDAO;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.appendTimeoutMillis = appendTimeoutMillis;
+        this.worker = new Thread(this::run, "bill-log-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        ConnectionFactory.addShutdownAction(this::close);
+    }
+
+    /**
+     * Returns the application-wide writer.
+     *
+     * @return the shared writer
+     */
+
+    public static BillLogWriter getInstance() {
+        return singleInstance;
+    }
+
+    /**
+     * Queues a bill to be written to the log. Blocks while the queue is full, up to the append timeout,
+     * and then writes the bill synchronously instead.
+     *
+     * @param bill the bill to write
+     */
+
+    public void append(Bill bill) {
+        appended.increment();
+        if (!closed) {
+            try {
+                // a bill queued while close() drains the queue for the last time is taken back and written here
+                if (queue.offer(bill, appendTimeoutMillis, TimeUnit.MILLISECONDS) && (!closed || !queue.remove(bill))) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronousWrites.increment();
+        flush(List.of(bill));
+    }
+
+    /**
+     * Stops accepting bills into the queue, writes every queued bill and stops the background thread.
+     * Bills appended afterwards are written synchronously.
+     * <p>
+     * The worker is not interrupted: an interrupt could land after its last wait and make the final flush
+     * fail to borrow a connection. It notices {@code closed} within one flush interval, writes the batch it is
+     * collecting and exits; the bills left in the queue are then written here.
+     */
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            worker.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Bill> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            flush(rest);
+        }
+    }
+
+    /**
+     * Returns the number of bills waiting in the queue.
+     *
+     * @return the queue depth
+     */
+
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of bills passed to {@link #append(Bill)}.
+     *
+     * @return the appended count
+     */
+
+    @Override
+    public long getAppendedCount() {
+        return appended.sum();
+    }
+
+    /**
+     * Returns the number of bills stored in the log.
+     *
+     * @return the written count
+     */
+
+    @Override
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Returns the number of bills that could not be stored.
+     *
+     * @return the failed count
+     */
+
+    @Override
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Returns the number of bills written on the caller's thread because the queue stayed full.
+     *
+     * @return the synchronous write count
+     */
+
+    @Override
+    public long getSynchronousWriteCount() {
+        return synchronousWrites.sum();
+    }
+
+    /**
+     * Returns the number of batches flushed.
+     *
+     * @return the flush count
+     */
+
+    @Override
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    /**
+     * Returns the average time taken to write and commit one batch.
+     *
+     * @return the average flush latency in milliseconds, or 0 before the first flush
+     */
+
+    @Override
+    public double getAverageFlushMillis() {
+        long count = flushes.sum();
+        return count == 0 ? 0 : flushNanos.sum() / 1e6 / count;
+    }
+
+    /**
+     * Returns the longest time taken to write and commit one batch.
+     *
+     * @return the maximum flush latency in milliseconds
+     */
+
+    @Override
+    public double getMaxFlushMillis() {
+        return maxFlushNanos.get() / 1e6;
+    }
+
+    /**
+     * Background loop: waits for a first bill, collects a batch until it is full or the flush interval
+     * has elapsed, and writes it.
+     */
+
+    private void run() {
+        List<Bill> batch = new ArrayList<>(maxBatchSize);
+        while (!closed) {
+            try {
+                Bill first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Bill next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // not interrupted by close(); if something else does, flush what was collected and go on
+                Thread.interrupted();
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes one batch in its own transaction, retrying a few times before giving up.
+     * A pending interrupt of the calling thread is cleared for the duration of the flush, so it cannot make
+     * the connection borrow or the retry delay fail, and restored afterwards.
+     */
+
+    private void flush(List<Bill> batch) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            flushWithRetries(batch);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void flushWithRetries(List<Bill> batch) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long start = System.nanoTime();
+            Connection connection = null;
+            try {
+                connection = ConnectionFactory.getConnection();
+                connection.setAutoCommit(false);
+                logDAO.insertBills(connection, batch);
+                connection.commit();
+
+                long elapsed = System.nanoTime() - start;
+                flushes.increment();
+                flushNanos.add(elapsed);
+                maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+                written.add(batch.size());
+                return;
+            } catch (SQLException | RuntimeException e) {
+                rollback(connection);
+                LOGGER.log(Level.WARNING, "BillLogWriter:flush attempt " + attempt + " " + e.getMessage());
+            } finally {
+                ConnectionFactory.close(connection);
+            }
+            if (attempt < MAX_ATTEMPTS) {
+                try {
+                    Thread.sleep(RETRY_DELAY_MS * attempt);
+                } catch (InterruptedException e) {
+                    // keep retrying; the caller's interrupt status is restored by flush()
+                }
+            }
+        }
+        failed.add(batch.size());
+        LOGGER.log(Level.SEVERE, "BillLogWriter:flush dropped bills of orders "
+                + batch.stream().map(Bill::orderId).toList());
+    }
+
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "BillLogWriter:rollback " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package DataAccessLayer;
+
+/**
+ * JMX view of a {@link BillLogWriter}: how many bills wait in its queue, what became of the appended bills
+ * and how long writing one batch takes. Latencies are in milliseconds and cover the insert and the commit.
+ */
+
+public interface BillLogWriterMXBean {
+
+    /**
+     * Returns the number of bills waiting in the queue.
+     *
+     * @return the queue depth
+     */
+
+    int getQueueDepth();
+
+    /**
+     * Returns the number of bills passed to {@link BillLogWriter#append(Model.Bill)}.
+     *
+     * @return the appended count
+     */
+
+    long getAppendedCount();
+
+    /**
+     * Returns the number of bills stored in the log.
+     *
+     * @return the written count
+     */
+
+    long getWrittenCount();
+
+    /**
+     * Returns the number of bills that could not be stored.
+     *
+     * @return the failed count
+     */
+
+    long getFailedCount();
+
+    /**
+     * Returns the number of bills written on the caller's thread because the queue stayed full.
+     *
+     * @return the synchronous write count
+     */
+
+    long getSynchronousWriteCount();
+
+    /**
+     * Returns the number of batches flushed.
+     *
+     * @return the flush count
+     */
+
+    long getFlushCount();
+
+    /**
+     * Returns the average time taken to write and commit one batch.
+     *
+     * @return the average flush latency in milliseconds, or 0 before the first flush
+     */
+
+    double getAverageFlushMillis();
+
+    /**
+     * Returns the longest time taken to write and commit one batch.
+     *
+     * @return the maximum flush latency in milliseconds
+     */
+
+    double getMaxFlushMillis();
+}
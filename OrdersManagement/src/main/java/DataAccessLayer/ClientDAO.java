@@ -1,16 +1,40 @@
 package DataAccessLayer;
 
 import Model.Client;
+import Monitoring.Metrics;
 
 /**
  * Data Access Object (DAO) class for performing operations on the {@link Client} entity.
  * <p>
  * This class inherits generic CRUD operations from {@link AbstractDAO} and can be extended
  * to include additional queries specific to the {@code Client} table if needed.
+ * Clients are read again and again by the panels and by order placement, so lookups by ID
+ * go through an LRU {@link EntityCache} of {@value #CACHE_SIZE} entries, shared by every {@code ClientDAO}
+ * and filled by {@link #findAll()}. Its size and hit/miss counters are published as
+ * {@code OrdersManagement:type=EntityCache,entity=Client}.
  *
  * @see Model.Client
  * @see AbstractDAO
  */
 
 public class ClientDAO extends AbstractDAO<Client> {
+
+    /**
+     * Maximum number of clients kept in the entity cache.
+     */
+    public static final int CACHE_SIZE = 1000;
+
+    private static final EntityCache<Client> CACHE = EntityCache.lru(CACHE_SIZE);
+
+    static {
+        Metrics.register("type=EntityCache,entity=Client", CACHE);
+    }
+
+    /**
+     * Creates the DAO with the shared client cache enabled.
+     */
+
+    public ClientDAO() {
+        enableCache(CACHE);
+    }
 }
@@ -0,0 +1,328 @@
+package DataAccessLayer;
+
+import Monitoring.CacheMXBean;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A size-bounded, read-through second-level cache of entities keyed by their {@code int} ID.
+ * <p>
+ * A DAO opts in by calling {@link AbstractDAO#enableCache(EntityCache)}; {@link AbstractDAO} then serves
+ * {@code findById}/{@code findByIds} from the cache and invalidates entries on {@code insert}, {@code update}
+ * and {@code delete}. Entries are spread over lock stripes, each guarded by a read/write lock, so concurrent
+ * readers never block each other and writers only block readers of the same stripe.
+ *
+ * <p>Two eviction policies are available:</p>
+ * <ul>
+ *     <li>{@link Eviction#LRU}: when a stripe is full, the least recently read entry is evicted. Recency is
+ *     tracked with a timestamp written on every hit without taking the write lock.</li>
+ *     <li>{@link Eviction#TTL}: entries expire a fixed time after they were loaded; when a stripe is full,
+ *     the oldest entry is evicted.</li>
+ * </ul>
+ *
+ * <p>To avoid caching a row that was changed while it was being loaded, loaders take a {@link #stamp(int)}
+ * before querying the database and store the result with {@link #putIfUnchanged(int, Object, long)}.
+ * The put is dropped if the entry was invalidated in between.</p>
+ *
+ * @param <T> the entity type
+ */
+
+public final class EntityCache<T> implements CacheMXBean {
+
+    /**
+     * Eviction policy of an {@link EntityCache}.
+     */
+    public enum Eviction {
+        /** Evict the least recently read entry when full. */
+        LRU,
+        /** Expire entries a fixed time after loading; evict the oldest entry when full. */
+        TTL
+    }
+
+    private static final int STRIPES = 16;
+
+    private final Eviction eviction;
+    private final long ttlNanos;
+    private final int maxPerStripe;
+    private final Stripe<T>[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private EntityCache(int maxSize, Eviction eviction, long ttlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than 0.");
+        }
+        this.eviction = eviction;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxPerStripe = Math.max(1, (maxSize + STRIPES - 1) / STRIPES);
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Stripe<T>[] created = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            created[i] = new Stripe<>();
+        }
+        this.stripes = created;
+    }
+
+    /**
+     * Creates a cache that evicts the least recently used entries once it holds {@code maxSize} entries.
+     *
+     * @param maxSize the maximum number of cached entities
+     * @param <T>     the entity type
+     * @return the cache
+     */
+
+    public static <T> EntityCache<T> lru(int maxSize) {
+        return new EntityCache<>(maxSize, Eviction.LRU, 0);
+    }
+
+    /**
+     * Creates a cache whose entries expire {@code ttlMillis} after they were loaded, holding at most
+     * {@code maxSize} entries.
+     *
+     * @param maxSize   the maximum number of cached entities
+     * @param ttlMillis the time to live of an entry, in milliseconds
+     * @param <T>       the entity type
+     * @return the cache
+     */
+
+    public static <T> EntityCache<T> ttl(int maxSize, long ttlMillis) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Time to live must be greater than 0.");
+        }
+        return new EntityCache<>(maxSize, Eviction.TTL, ttlMillis);
+    }
+
+    /**
+     * Returns the cached entity for {@code id}, or {@code null} on a miss or an expired entry.
+     *
+     * @param id the entity ID
+     * @return the cached entity, or {@code null}
+     */
+
+    public T get(int id) {
+        Stripe<T> stripe = stripe(id);
+        Entry<T> entry;
+        stripe.lock.readLock().lock();
+        try {
+            entry = stripe.entries.get(id);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+
+        if (entry == null || (eviction == Eviction.TTL && System.nanoTime() - entry.loadedAt > ttlNanos)) {
+            misses.increment();
+            return null;
+        }
+        entry.lastAccess = System.nanoTime();
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Returns the invalidation stamp of {@code id}'s stripe, to be passed to
+     * {@link #putIfUnchanged(int, Object, long)} after loading the entity.
+     *
+     * @param id the entity ID
+     * @return the current stamp
+     */
+
+    public long stamp(int id) {
+        return stripe(id).version.get();
+    }
+
+    /**
+     * Returns the invalidation stamps of every stripe, to be passed to
+     * {@link #putIfUnchanged(int, Object, long[])} after loading entities whose IDs are not known in advance.
+     *
+     * @return the current stamps
+     */
+
+    public long[] stamps() {
+        long[] stamps = new long[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stamps[i] = stripes[i].version.get();
+        }
+        return stamps;
+    }
+
+    /**
+     * Caches an entity loaded from the database, unless an entity of its stripe was invalidated since
+     * {@code stamps} were taken.
+     *
+     * @param id     the entity ID
+     * @param value  the loaded entity
+     * @param stamps the stamps taken with {@link #stamps()} before loading
+     */
+
+    public void putIfUnchanged(int id, T value, long[] stamps) {
+        putIfUnchanged(id, value, stamps[stripeIndex(id)]);
+    }
+
+    /**
+     * Caches an entity loaded from the database, unless an entity of the same stripe was invalidated
+     * since {@code stamp} was taken.
+     *
+     * @param id    the entity ID
+     * @param value the loaded entity
+     * @param stamp the stamp taken before loading
+     */
+
+    public void putIfUnchanged(int id, T value, long stamp) {
+        Stripe<T> stripe = stripe(id);
+        stripe.lock.writeLock().lock();
+        try {
+            if (stripe.version.get() != stamp) {
+                return;
+            }
+            if (!stripe.entries.containsKey(id) && stripe.entries.size() >= maxPerStripe) {
+                evictOne(stripe);
+            }
+            stripe.entries.put(id, new Entry<>(value, System.nanoTime()));
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the entity with {@code id} from the cache.
+     *
+     * @param id the entity ID
+     */
+
+    public void invalidate(int id) {
+        Stripe<T> stripe = stripe(id);
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.version.incrementAndGet();
+            stripe.entries.remove(id);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entity from the cache.
+     */
+
+    public void invalidateAll() {
+        for (Stripe<T> stripe : stripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.version.incrementAndGet();
+                stripe.entries.clear();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached entities.
+     *
+     * @return the size of the cache
+     */
+
+    @Override
+    public int getSize() {
+        int size = 0;
+        for (Stripe<T> stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of lookups answered by the cache.
+     *
+     * @return the hit count
+     */
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that missed the cache.
+     *
+     * @return the miss count
+     */
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private Stripe<T> stripe(int id) {
+        return stripes[stripeIndex(id)];
+    }
+
+    private static int stripeIndex(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Evicts one entry of a full stripe: an expired entry if there is one, otherwise the least recently
+     * read (LRU) or oldest (TTL) entry. Must be called with the stripe's write lock held.
+     */
+
+    private void evictOne(Stripe<T> stripe) {
+        long now = System.nanoTime();
+        Integer victim = null;
+        long best = Long.MAX_VALUE;
+        Iterator<Map.Entry<Integer, Entry<T>>> it = stripe.entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Entry<T>> candidate = it.next();
+            Entry<T> entry = candidate.getValue();
+            if (eviction == Eviction.TTL && now - entry.loadedAt > ttlNanos) {
+                it.remove();
+                return;
+            }
+            long age = eviction == Eviction.LRU ? entry.lastAccess : entry.loadedAt;
+            if (age < best) {
+                best = age;
+                victim = candidate.getKey();
+            }
+        }
+        if (victim != null) {
+            stripe.entries.remove(victim);
+        }
+    }
+
+    /**
+     * One lock stripe: a plain map guarded by a read/write lock, plus an invalidation counter.
+     */
+
+    private static final class Stripe<T> {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Integer, Entry<T>> entries = new HashMap<>();
+        private final AtomicLong version = new AtomicLong();
+    }
+
+    /**
+     * A cached entity with its load time and last access time.
+     */
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        private Entry(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package DataAccessLayer;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable description of how an entity class is stored: its table, its columns in declaration order,
+ * the SQL statements used by {@link AbstractDAO}, and precompiled accessors that bind field values to
+ * {@link PreparedStatement} parameters.
+ * <p>
+ * The metadata is built once per DAO, so {@code insert}, {@code update} and {@code delete} only bind
+ * parameters at call time. Fields whose type is a {@link List} are not persisted; a field named
+ * {@code id} is treated as the auto-generated primary key.
+ *
+ * @param <T> the entity type
+ */
+
+public final class EntityMetadata<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Placeholder counts of the precomputed {@code WHERE id IN (...)} statements, in ascending order.
+     * Keeping the number of distinct statement texts small keeps the server-side statement cache effective.
+     */
+    static final int[] ID_LIST_SHAPES = {1, 8, 32, 128};
+
+    private final Class<T> type;
+    private final String tableName;
+    private final List<String> columns;
+    private final FieldBinder<T>[] binders;
+    private final ToIntFunction<T> idGetter;
+    private final ObjIntConsumer<T> idSetter;
+
+    private final String selectAllSql;
+    private final String selectByIdSql;
+    private final String selectPageSql;
+    private final String selectPageDescendingSql;
+    private final String pageIndexSql;
+    private final String[] selectByIdsSql;
+    private final String insertSql;
+    private final String updateSql;
+    private final String deleteSql;
+
+    @SuppressWarnings("unchecked")
+    private EntityMetadata(Class<T> type) {
+        this.type = type;
+        this.tableName = type.getSimpleName();
+
+        List<String> columnNames = new ArrayList<>();
+        List<FieldBinder<T>> fieldBinders = new ArrayList<>();
+        Field idField = null;
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || List.class.isAssignableFrom(field.getType())) {
+                continue;
+            }
+            if (field.getName().equalsIgnoreCase("id")) {
+                idField = field;
+                continue;
+            }
+            columnNames.add(field.getName());
+            fieldBinders.add(binderFor(field));
+        }
+        this.columns = Collections.unmodifiableList(columnNames);
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        FieldBinder<T>[] bound = fieldBinders.toArray(new FieldBinder[0]);
+        this.binders = bound;
+
+        if (idField != null && idField.getType() == int.class) {
+            this.idGetter = (ToIntFunction<T>) accessor(ToIntFunction.class, "applyAsInt", getter(idField), int.class);
+            this.idSetter = idSetter(idField);
+        } else {
+            this.idGetter = null;
+            this.idSetter = null;
+        }
+
+        String columnList = String.join(", ", columns);
+        this.selectAllSql = "SELECT " + (idGetter != null ? "id, " : "") + columnList + " FROM " + tableName;
+        this.selectByIdSql = selectAllSql + " WHERE id = ?";
+        this.selectPageSql = selectAllSql + " WHERE id > ? ORDER BY id LIMIT ?";
+        this.selectPageDescendingSql = selectAllSql + " WHERE id < ? ORDER BY id DESC LIMIT ?";
+        this.pageIndexSql = PageIndex.sql("id", "FROM " + tableName);
+        this.selectByIdsSql = new String[ID_LIST_SHAPES.length];
+        for (int i = 0; i < ID_LIST_SHAPES.length; i++) {
+            selectByIdsSql[i] = selectAllSql + " WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(ID_LIST_SHAPES[i], "?")) + ")";
+        }
+        this.insertSql = "INSERT INTO " + tableName + " (" + columnList + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        this.updateSql = "UPDATE " + tableName + " SET " + String.join(" = ?, ", columns) + " = ? WHERE id = ?";
+        this.deleteSql = "DELETE FROM " + tableName + " WHERE id = ?";
+    }
+
+    /**
+     * Builds the metadata for an entity class.
+     *
+     * @param type the entity class
+     * @param <T>  the entity type
+     * @return the metadata
+     */
+
+    public static <T> EntityMetadata<T> of(Class<T> type) {
+        return new EntityMetadata<>(type);
+    }
+
+    /**
+     * Returns the entity class described by this metadata.
+     *
+     * @return the entity class
+     */
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the table name, which is the simple name of the entity class.
+     *
+     * @return the table name
+     */
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns the persisted columns other than {@code id}, in field declaration order.
+     *
+     * @return an unmodifiable list of column names
+     */
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns {@code SELECT <columns> FROM <table>}.
+     *
+     * @return the select-all statement
+     */
+
+    public String getSelectAllSql() {
+        return selectAllSql;
+    }
+
+    /**
+     * Returns {@code SELECT <columns> FROM <table> WHERE id = ?}.
+     *
+     * @return the select-by-id statement
+     */
+
+    public String getSelectByIdSql() {
+        return selectByIdSql;
+    }
+
+    /**
+     * Returns {@code SELECT <columns> FROM <table> WHERE id IN (?, ..., ?)} with
+     * {@code ID_LIST_SHAPES[shapeIndex]} placeholders.
+     *
+     * @param shapeIndex the index into {@link #ID_LIST_SHAPES}
+     * @return the select-by-ids statement
+     */
+
+    public String getSelectByIdsSql(int shapeIndex) {
+        return selectByIdsSql[shapeIndex];
+    }
+
+    /**
+     * Returns the ascending keyset page query {@code ... WHERE id > ? ORDER BY id LIMIT ?}.
+     *
+     * @return the ascending page statement
+     */
+
+    public String getSelectPageSql() {
+        return selectPageSql;
+    }
+
+    /**
+     * Returns the descending keyset page query {@code ... WHERE id < ? ORDER BY id DESC LIMIT ?}.
+     *
+     * @return the descending page statement
+     */
+
+    public String getSelectPageDescendingSql() {
+        return selectPageDescendingSql;
+    }
+
+    /**
+     * Returns the query that builds the {@link PageIndex} of the table; its parameters are the key to start after
+     * and the page size.
+     *
+     * @return the page index statement
+     */
+
+    public String getPageIndexSql() {
+        return pageIndexSql;
+    }
+
+    /**
+     * Returns the INSERT statement; {@code id} is left to the database.
+     *
+     * @return the insert statement
+     */
+
+    public String getInsertSql() {
+        return insertSql;
+    }
+
+    /**
+     * Returns the UPDATE statement; the last parameter is the {@code id}.
+     *
+     * @return the update statement
+     */
+
+    public String getUpdateSql() {
+        return updateSql;
+    }
+
+    /**
+     * Returns {@code DELETE FROM <table> WHERE id = ?}.
+     *
+     * @return the delete statement
+     */
+
+    public String getDeleteSql() {
+        return deleteSql;
+    }
+
+    /**
+     * Binds the persisted columns of {@code entity} to parameters {@code 1..n} of an INSERT statement.
+     *
+     * @param statement the statement prepared from {@link #getInsertSql()}
+     * @param entity    the entity to insert
+     * @throws SQLException if a parameter cannot be set
+     */
+
+    public void bindInsert(PreparedStatement statement, T entity) throws SQLException {
+        for (int i = 0; i < binders.length; i++) {
+            binders[i].bind(statement, i + 1, entity);
+        }
+    }
+
+    /**
+     * Binds the persisted columns of {@code entity} followed by its id to an UPDATE statement.
+     *
+     * @param statement the statement prepared from {@link #getUpdateSql()}
+     * @param entity    the entity to update
+     * @throws SQLException if a parameter cannot be set
+     */
+
+    public void bindUpdate(PreparedStatement statement, T entity) throws SQLException {
+        bindInsert(statement, entity);
+        statement.setInt(binders.length + 1, getId(entity));
+    }
+
+    /**
+     * Returns the id of an entity.
+     *
+     * @param entity the entity
+     * @return its id
+     * @throws IllegalStateException if the entity has no {@code int id} field
+     */
+
+    public int getId(T entity) {
+        requireId();
+        return idGetter.applyAsInt(entity);
+    }
+
+    /**
+     * Stores a generated id into an entity.
+     *
+     * @param entity the entity
+     * @param id     the generated id
+     * @throws IllegalStateException if the entity has no {@code int id} field
+     */
+
+    public void setId(T entity, int id) {
+        requireId();
+        idSetter.accept(entity, id);
+    }
+
+    /**
+     * Returns whether the entity has an {@code int id} primary key.
+     *
+     * @return {@code true} if an id field is present
+     */
+
+    public boolean hasId() {
+        return idGetter != null;
+    }
+
+    private void requireId() {
+        if (idGetter == null) {
+            throw new IllegalStateException(type.getName() + " has no int id field");
+        }
+    }
+
+    /**
+     * Creates the binder for one persisted field, using the typed {@code PreparedStatement} setter
+     * for primitive fields so the value is never boxed.
+     */
+
+    @SuppressWarnings("unchecked")
+    private FieldBinder<T> binderFor(Field field) {
+        MethodHandle getter = getter(field);
+        Class<?> fieldType = field.getType();
+        if (fieldType == int.class) {
+            ToIntFunction<T> get = (ToIntFunction<T>) accessor(ToIntFunction.class, "applyAsInt", getter, int.class);
+            return (st, index, entity) -> st.setInt(index, get.applyAsInt(entity));
+        }
+        if (fieldType == long.class) {
+            ToLongFunction<T> get = (ToLongFunction<T>) accessor(ToLongFunction.class, "applyAsLong", getter, long.class);
+            return (st, index, entity) -> st.setLong(index, get.applyAsLong(entity));
+        }
+        if (fieldType == double.class) {
+            ToDoubleFunction<T> get = (ToDoubleFunction<T>) accessor(ToDoubleFunction.class, "applyAsDouble", getter, double.class);
+            return (st, index, entity) -> st.setDouble(index, get.applyAsDouble(entity));
+        }
+
+        Function<T, Object> get = (Function<T, Object>) accessor(Function.class, "apply", getter, Object.class);
+        if (fieldType == String.class) {
+            return (st, index, entity) -> st.setString(index, (String) get.apply(entity));
+        }
+        if (fieldType == java.util.Date.class) {
+            return (st, index, entity) -> {
+                Object value = get.apply(entity);
+                if (value == null) {
+                    st.setNull(index, Types.TIMESTAMP);
+                } else if (value instanceof java.sql.Date date) {
+                    st.setDate(index, date);
+                } else {
+                    st.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()));
+                }
+            };
+        }
+        return (st, index, entity) -> st.setObject(index, get.apply(entity));
+    }
+
+    /**
+     * Resolves the JavaBean getter of a field, falling back to a direct field read when there is no getter.
+     */
+
+    private MethodHandle getter(Field field) {
+        String name = field.getName();
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        String prefix = field.getType() == boolean.class ? "is" : "get";
+        try {
+            return LOOKUP.findVirtual(type, prefix + suffix, MethodType.methodType(field.getType()));
+        } catch (ReflectiveOperationException e) {
+            try {
+                field.setAccessible(true);
+                return LOOKUP.unreflectGetter(field);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalArgumentException("Cannot read field " + name + " of " + type.getName(), ex);
+            }
+        }
+    }
+
+    /**
+     * Resolves the setter used to store generated ids.
+     */
+
+    @SuppressWarnings("unchecked")
+    private ObjIntConsumer<T> idSetter(Field idField) {
+        MethodHandle setter;
+        try {
+            setter = LOOKUP.findVirtual(type, "setId", MethodType.methodType(void.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            try {
+                idField.setAccessible(true);
+                setter = LOOKUP.unreflectSetter(idField);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalArgumentException("Cannot write field id of " + type.getName(), ex);
+            }
+        }
+        MethodHandle handle = setter;
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(ObjIntConsumer.class),
+                    MethodType.methodType(void.class, Object.class, int.class), handle,
+                    MethodType.methodType(void.class, type, int.class));
+            return (ObjIntConsumer<T>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            return (entity, id) -> {
+                try {
+                    handle.invoke(entity, id);
+                } catch (Throwable t) {
+                    throw new IllegalStateException("Cannot set id on " + type.getName(), t);
+                }
+            };
+        }
+    }
+
+    /**
+     * Spins a functional interface that calls {@code getter} directly, or wraps the handle when
+     * {@link LambdaMetafactory} cannot link it (e.g. a plain field read).
+     */
+
+    private Object accessor(Class<?> iface, String method, MethodHandle getter, Class<?> resultType) {
+        MethodType erased = MethodType.methodType(resultType, Object.class);
+        Class<?> instantiatedResult = resultType.isPrimitive()
+                ? resultType
+                : MethodType.methodType(getter.type().returnType()).wrap().returnType();
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, method, MethodType.methodType(iface), erased,
+                    getter, MethodType.methodType(instantiatedResult, type));
+            return site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle generic = getter.asType(erased);
+            if (iface == ToIntFunction.class) {
+                return (ToIntFunction<Object>) entity -> (int) invokeUnchecked(generic, entity);
+            }
+            if (iface == ToLongFunction.class) {
+                return (ToLongFunction<Object>) entity -> (long) invokeUnchecked(generic, entity);
+            }
+            if (iface == ToDoubleFunction.class) {
+                return (ToDoubleFunction<Object>) entity -> (double) invokeUnchecked(generic, entity);
+            }
+            return (Function<Object, Object>) entity -> invokeUnchecked(generic, entity);
+        }
+    }
+
+    private static Object invokeUnchecked(MethodHandle handle, Object entity) {
+        try {
+            return handle.invoke(entity);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot read property of " + entity.getClass().getName(), t);
+        }
+    }
+
+    /**
+     * Binds one field of an entity to one statement parameter.
+     */
+
+    @FunctionalInterface
+    private interface FieldBinder<T> {
+        void bind(PreparedStatement statement, int index, T entity) throws SQLException;
+    }
+}
@@ -2,20 +2,41 @@ package DataAccessLayer;
 
 import Connection.ConnectionFactory;
 import Model.Bill;
+import Monitoring.Metrics;
+import Monitoring.OperationStats;
+import Monitoring.SqlExecutionEvent;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for handling operations related to the billing log.
  * <p>
  * This class provides methods to insert billing records and retrieve all billing logs
  * from the database. The log is used to track historical order transactions.
+ * Inserts and reads are timed in the {@link Metrics} of the {@code Log} entity and emit a
+ * {@link Monitoring.SqlExecutionEvent} each.
  */
 
 public class LogDAO {
 
+    private static final String INSERT_QUERY =
+            "INSERT INTO log (orderID, clientId, clientName, orderData, totalAmount) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_QUERY =
+            "SELECT id, orderID, clientId, clientName, orderData, totalAmount FROM log";
+    private static final String PAGE_QUERY = SELECT_QUERY + " WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String PAGE_DESCENDING_QUERY = SELECT_QUERY + " WHERE id < ? ORDER BY id DESC LIMIT ?";
+    private static final String PAGE_INDEX_QUERY = PageIndex.sql("id", "FROM log");
+
+    private static final OperationStats INSERT_BILL_STATS = Metrics.operation("Log", "insertBill");
+    private static final OperationStats INSERT_BILLS_STATS = Metrics.operation("Log", "insertBills");
+    private static final OperationStats FIND_ALL_STATS = Metrics.operation("Log", "findAll");
+    private static final OperationStats FIND_PAGE_STATS = Metrics.operation("Log", "findPage");
+
     /**
      * Inserts a new bill entry into the {@code log} table.
      *
@@ -25,24 +46,72 @@ public class LogDAO {
 
     public void insertBill(Bill bill)
     {
-        String query = "INSERT INTO log (orderID, clientId, clientName, orderData, totalAmount) VALUES (?, ?, ?, ?, ?)";
+        try(Connection connection = ConnectionFactory.getConnection())
+        {
+            insertBill(connection, bill);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error inserting Bill into Log: " + e.getMessage(), e);
+        }
+    }
 
-        try(Connection connection = ConnectionFactory.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement(query))
+    /**
+     * Inserts a new bill entry into the {@code log} table using the caller's connection,
+     * so the log row can be written in the same transaction as the order it describes.
+     *
+     * @param connection the connection to use; it is neither committed nor closed
+     * @param bill       the {@link Bill} record containing order and client information
+     * @throws SQLException if a SQL error occurs during insertion
+     */
+
+    public void insertBill(Connection connection, Bill bill) throws SQLException
+    {
+        SqlExecutionEvent execution = INSERT_BILL_STATS.begin();
+        try(PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY))
         {
-            preparedStatement.setInt(1, bill.orderId());
-            preparedStatement.setInt(2, bill.clientId());
-            preparedStatement.setString(3, bill.clientName());
-            preparedStatement.setTimestamp(4, new Timestamp(bill.orderData().getTime()));
-            preparedStatement.setDouble(5, bill.totalAmount());
+            bindBill(preparedStatement, bill);
+            INSERT_BILL_STATS.success(execution, preparedStatement.executeUpdate());
+        } catch (SQLException e) {
+            INSERT_BILL_STATS.failure(execution);
+            throw e;
+        }
+    }
 
-            preparedStatement.executeUpdate();
+    /**
+     * Inserts several bill entries with one JDBC batch using the caller's connection. With the driver's
+     * {@code rewriteBatchedStatements} the batch is sent as a single multi-row INSERT.
+     *
+     * @param connection the connection to use; it is neither committed nor closed
+     * @param bills      the {@link Bill} records to insert
+     * @throws SQLException if a SQL error occurs during insertion
+     */
 
+    public void insertBills(Connection connection, List<Bill> bills) throws SQLException
+    {
+        SqlExecutionEvent execution = INSERT_BILLS_STATS.begin();
+        try(PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY))
+        {
+            for(Bill bill : bills)
+            {
+                bindBill(preparedStatement, bill);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+            INSERT_BILLS_STATS.success(execution, bills.size());
         } catch (SQLException e) {
-            throw new RuntimeException("Error inserting Bill into Log: " + e.getMessage(), e);
+            INSERT_BILLS_STATS.failure(execution);
+            throw e;
         }
     }
 
+    private static void bindBill(PreparedStatement preparedStatement, Bill bill) throws SQLException
+    {
+        preparedStatement.setInt(1, bill.orderId());
+        preparedStatement.setInt(2, bill.clientId());
+        preparedStatement.setString(3, bill.clientName());
+        preparedStatement.setTimestamp(4, new Timestamp(bill.orderData().getTime()));
+        preparedStatement.setDouble(5, bill.totalAmount());
+    }
+
     /**
      * Retrieves all bill records from the {@code log} table.
      *
@@ -52,30 +121,179 @@ public class LogDAO {
 
     public List<Bill> findAllBills(){
         List<Bill> bills = new ArrayList<>();
-        String query = "SELECT * FROM log";
+        SqlExecutionEvent execution = FIND_ALL_STATS.begin();
 
         try(Connection connection = ConnectionFactory.getConnection();
-            PreparedStatement statement = connection.prepareStatement(query);
+            PreparedStatement statement = connection.prepareStatement(SELECT_QUERY);
             ResultSet rs = statement.executeQuery()){
 
             while(rs.next())
             {
-                Bill bill = new Bill(
-                        rs.getInt("id"),
-                        rs.getInt("orderId"),
-                        rs.getInt("clientId"),
-                        rs.getString("clientName"),
-                        rs.getTimestamp("orderData"),
-                        rs.getDouble("totalAmount")
-                );
-                bills.add(bill);
+                bills.add(readBill(rs));
             }
 
         }catch (SQLException e)
         {
+            FIND_ALL_STATS.failure(execution);
             throw new RuntimeException("Error finding Bills from Log: " + e.getMessage(), e);
         }
+        FIND_ALL_STATS.success(execution, bills.size());
         return bills;
     }
 
+    /**
+     * Retrieves the page of bill records whose ID is greater than {@code afterId}, oldest first.
+     * Start with {@code afterId = 0} and continue with {@link Page#nextCursor()}.
+     *
+     * @param afterId the ID of the last bill of the previous page
+     * @param limit   the maximum number of bills in the page
+     * @return the page of {@link Bill} records
+     * @throws RuntimeException if a SQL error occurs during retrieval
+     */
+
+    public Page<Bill> findBillPage(int afterId, int limit){
+        return findBillPage(PAGE_QUERY, afterId, limit);
+    }
+
+    /**
+     * Retrieves the page of bill records whose ID is smaller than {@code beforeId}, newest first.
+     * Start with {@code beforeId = Integer.MAX_VALUE} and continue with {@link Page#nextCursor()}.
+     *
+     * @param beforeId the ID of the last bill of the previous page
+     * @param limit    the maximum number of bills in the page
+     * @return the page of {@link Bill} records
+     * @throws RuntimeException if a SQL error occurs during retrieval
+     */
+
+    public Page<Bill> findBillPageDescending(int beforeId, int limit){
+        return findBillPage(PAGE_DESCENDING_QUERY, beforeId, limit);
+    }
+
+    /**
+     * Retrieves the number of bill records and the cursor of every page of {@code pageSize} bills,
+     * oldest first, so any page can be read directly with {@link #findBillPage(int, int)}.
+     *
+     * @param pageSize the number of bills per page
+     * @return the page index of the {@code log} table
+     * @throws RuntimeException if a SQL error occurs during retrieval
+     */
+
+    public PageIndex findBillPageIndex(int pageSize){
+        return findBillPageIndex(pageSize, null);
+    }
+
+    /**
+     * Extends a page index of the bill records with the bills logged since it was built. The log is
+     * append-only, so only the bills from the index's last page on are read.
+     *
+     * @param pageSize the number of bills per page
+     * @param previous the index to extend, or {@code null} to build a new one
+     * @return the page index of the {@code log} table
+     * @throws RuntimeException if a SQL error occurs during retrieval
+     */
+
+    public PageIndex findBillPageIndex(int pageSize, PageIndex previous){
+        try(Connection connection = ConnectionFactory.getConnection()){
+            return PageIndex.load(connection, PAGE_INDEX_QUERY, previous, pageSize);
+        }catch (SQLException e)
+        {
+            throw new RuntimeException("Error indexing Bills from Log: " + e.getMessage(), e);
+        }
+    }
+
+    private Page<Bill> findBillPage(String query, int cursor, int limit){
+        if(limit <= 0)
+            throw new IllegalArgumentException("Page size must be greater than 0.");
+        List<Bill> bills = new ArrayList<>();
+        SqlExecutionEvent execution = FIND_PAGE_STATS.begin();
+
+        try(Connection connection = ConnectionFactory.getConnection();
+            PreparedStatement statement = connection.prepareStatement(query)){
+
+            statement.setInt(1, cursor);
+            statement.setInt(2, limit + 1);
+            try(ResultSet rs = statement.executeQuery()){
+                while(rs.next())
+                {
+                    bills.add(readBill(rs));
+                }
+            }
+
+        }catch (SQLException e)
+        {
+            FIND_PAGE_STATS.failure(execution);
+            throw new RuntimeException("Error finding Bills from Log: " + e.getMessage(), e);
+        }
+        FIND_PAGE_STATS.success(execution, bills.size());
+        return Page.of(bills, limit, cursor, Bill::id);
+    }
+
+    /**
+     * Streams all bill records from the {@code log} table with a server-side cursor, so memory use
+     * does not grow with the size of the log. The connection is released when the stream is closed.
+     *
+     * @return a lazy stream of {@link Bill} records
+     * @throws RuntimeException if a SQL error occurs
+     */
+
+    public Stream<Bill> streamBills(){
+        try {
+            return QueryStream.open(SELECT_QUERY, statement -> { }, rs -> LogDAO::readBill);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming Bills from Log: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams the bill records whose {@code orderData} lies in {@code [from, to)}, oldest first, with a
+     * server-side cursor. The connection is released when the stream is closed.
+     *
+     * @param from the inclusive start of the range, or {@code null} for no lower bound
+     * @param to   the exclusive end of the range, or {@code null} for no upper bound
+     * @return a lazy stream of {@link Bill} records
+     * @throws RuntimeException if a SQL error occurs
+     */
+
+    public Stream<Bill> streamBills(Date from, Date to){
+        String range = QueryStream.dateRange("orderData", from, to);
+        String query = SELECT_QUERY + (range.isEmpty() ? "" : " WHERE " + range) + " ORDER BY id";
+        try {
+            return QueryStream.open(query, QueryStream.dateRangeBinder(from, to), rs -> LogDAO::readBill);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming Bills from Log: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Passes every bill record of the {@code log} table to {@code action}, one row at a time.
+     *
+     * @param action the action applied to each bill
+     * @throws RuntimeException if a SQL error occurs
+     */
+
+    public void forEachBill(Consumer<? super Bill> action){
+        try(Stream<Bill> bills = streamBills()){
+            bills.forEach(action);
+        }
+    }
+
+    /**
+     * Creates a {@link Bill} from the current row of a {@code log} result set.
+     *
+     * @param rs the result set positioned on a row
+     * @return the bill
+     * @throws SQLException if a column cannot be read
+     */
+
+    static Bill readBill(ResultSet rs) throws SQLException {
+        return new Bill(
+                rs.getInt("id"),
+                rs.getInt("orderId"),
+                rs.getInt("clientId"),
+                rs.getString("clientName"),
+                rs.getTimestamp("orderData"),
+                rs.getDouble("totalAmount")
+        );
+    }
+
 }
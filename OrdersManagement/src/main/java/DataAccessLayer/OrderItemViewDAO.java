@@ -0,0 +1,184 @@
+package DataAccessLayer;
+
+import Connection.ConnectionFactory;
+import Model.OrderItemView;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Data Access Object (DAO) that reads {@link OrderItemView} rows for order history screens.
+ * <p>
+ * The product name is resolved in the database with a join of {@code OrderItem} and {@code Product}
+ * (and {@code Orders} when filtering by client), so building the history is a single indexed query
+ * followed by a linear mapping, without loading the product table into memory.
+ *
+ * @see OrderItemView
+ */
+
+public class OrderItemViewDAO {
+    private static final Logger LOGGER = Logger.getLogger(OrderItemViewDAO.class.getName());
+
+    private static final String SELECT_QUERY =
+            "SELECT oi.orderId AS orderId, COALESCE(p.name, 'Unknown') AS productName, "
+                    + "oi.quantity AS quantity, oi.price AS price "
+                    + "FROM OrderItem oi LEFT JOIN Product p ON p.id = oi.productId";
+    private static final String ORDER_BY = " ORDER BY oi.id";
+
+    private static final String FIND_ALL_QUERY = SELECT_QUERY + ORDER_BY;
+    private static final String FIND_BY_ORDER_QUERY = SELECT_QUERY + " WHERE oi.orderId = ?" + ORDER_BY;
+    private static final String FIND_BY_CLIENT_QUERY = SELECT_QUERY
+            + " JOIN Orders o ON o.id = oi.orderId WHERE o.clientId = ?" + ORDER_BY;
+    private static final String ORDERS_JOIN = " JOIN Orders o ON o.id = oi.orderId";
+    private static final String PAGE_QUERY = SELECT_QUERY + " WHERE oi.id > ?" + ORDER_BY + " LIMIT ?";
+    private static final String PAGE_INDEX_QUERY = PageIndex.sql("oi.id", "FROM OrderItem oi");
+
+    /**
+     * Retrieves the items of all orders, with their product names.
+     *
+     * @return the order item views, in item order
+     */
+
+    public List<OrderItemView> findAll() {
+        return query(FIND_ALL_QUERY, null, "findAll");
+    }
+
+    /**
+     * Retrieves the items of one order, with their product names.
+     *
+     * @param orderId the ID of the order
+     * @return the order item views of that order
+     */
+
+    public List<OrderItemView> findByOrderId(int orderId) {
+        return query(FIND_BY_ORDER_QUERY, orderId, "findByOrderId");
+    }
+
+    /**
+     * Retrieves the items of all orders placed by one client, with their product names.
+     *
+     * @param clientId the ID of the client
+     * @return the order item views of that client's orders
+     */
+
+    public List<OrderItemView> findByClientId(int clientId) {
+        return query(FIND_BY_CLIENT_QUERY, clientId, "findByClientId");
+    }
+
+    /**
+     * Streams the items of all orders whose {@code orderData} lies in {@code [from, to)}, in item order,
+     * with a server-side cursor. The connection is released when the stream is closed.
+     *
+     * @param from the inclusive start of the range, or {@code null} for no lower bound
+     * @param to   the exclusive end of the range, or {@code null} for no upper bound
+     * @return a lazy stream of order item views
+     * @throws SQLException if the query cannot be executed
+     */
+
+    public Stream<OrderItemView> stream(Date from, Date to) throws SQLException {
+        String range = QueryStream.dateRange("o.orderData", from, to);
+        String query = SELECT_QUERY + ORDERS_JOIN + (range.isEmpty() ? "" : " WHERE " + range) + ORDER_BY;
+        return QueryStream.open(query, QueryStream.dateRangeBinder(from, to),
+                rs -> RowMapper.of(OrderItemView.class, rs)::mapRow);
+    }
+
+    /**
+     * Retrieves the number of order items and the cursor of every page of {@code pageSize} items,
+     * in item order, for use with {@link #findPage(int, int)}.
+     *
+     * @param pageSize the number of items per page
+     * @return the page index, or {@code null} if a database error occurs
+     */
+
+    public PageIndex findPageIndex(int pageSize) {
+        return findPageIndex(pageSize, null);
+    }
+
+    /**
+     * Extends a page index of the order items with the items added since it was built, reading only the
+     * items from its last page on. Use {@link #findPageIndex(int)} after items were deleted.
+     *
+     * @param pageSize the number of items per page
+     * @param previous the index to extend, or {@code null} to build a new one
+     * @return the page index, or {@code null} if a database error occurs
+     */
+
+    public PageIndex findPageIndex(int pageSize, PageIndex previous) {
+        Connection connection = null;
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            return PageIndex.load(connection, PAGE_INDEX_QUERY, previous, pageSize);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OrderItemViewDAO:findPageIndex " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves at most {@code limit} order item views whose item ID is greater than {@code afterItemId},
+     * in item order. The cursors come from {@link #findPageIndex(int)}.
+     *
+     * @param afterItemId the ID of the last item of the previous page, 0 for the first page
+     * @param limit       the maximum number of items
+     * @return the order item views of the page
+     */
+
+    public List<OrderItemView> findPage(int afterItemId, int limit) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(PAGE_QUERY);
+            statement.setInt(1, afterItemId);
+            statement.setInt(2, limit);
+            resultSet = statement.executeQuery();
+            return RowMapper.of(OrderItemView.class, resultSet).mapAll(resultSet);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OrderItemViewDAO:findPage " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return List.of();
+    }
+
+    /**
+     * Runs one of the view queries with an optional single integer filter.
+     */
+
+    private List<OrderItemView> query(String query, Integer filter, String operation) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(query);
+            if (filter != null) {
+                statement.setInt(1, filter);
+            }
+            resultSet = statement.executeQuery();
+            return RowMapper.of(OrderItemView.class, resultSet).mapAll(resultSet);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OrderItemViewDAO:" + operation + " " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,40 @@
+package DataAccessLayer;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * One page of a keyset-paginated query.
+ * <p>
+ * Pages are addressed by the ID of the last row seen instead of an OFFSET, so fetching any page costs
+ * {@code O(limit)} regardless of how deep into the table it is. Pass {@link #nextCursor()} to the next
+ * {@code findPage} call to continue walking the table.
+ *
+ * @param items      the rows of this page, in key order
+ * @param nextCursor the ID of the last row of this page, to be used as the cursor of the next page;
+ *                   equal to the requested cursor when the page is empty
+ * @param hasMore    {@code true} if at least one more row exists after this page
+ * @param <T>        the row type
+ */
+
+public record Page<T>(List<T> items, int nextCursor, boolean hasMore) {
+
+    /**
+     * Builds a page from the rows returned by a query that fetched {@code limit + 1} rows:
+     * the extra row only signals that there is a next page and is dropped.
+     *
+     * @param rows   the fetched rows, at most {@code limit + 1}
+     * @param limit  the requested page size
+     * @param cursor the cursor the page was requested with
+     * @param idOf   extracts the key of a row
+     * @param <T>    the row type
+     * @return the page
+     */
+
+    static <T> Page<T> of(List<T> rows, int limit, int cursor, ToIntFunction<T> idOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? List.copyOf(rows.subList(0, limit)) : List.copyOf(rows);
+        int next = items.isEmpty() ? cursor : idOf.applyAsInt(items.get(items.size() - 1));
+        return new Page<>(items, next, hasMore);
+    }
+}
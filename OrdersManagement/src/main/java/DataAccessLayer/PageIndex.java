@@ -0,0 +1,114 @@
+package DataAccessLayer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * The row count of a keyset-paginated query together with the cursor of each of its pages.
+ * <p>
+ * Knowing the cursor of every page lets a caller jump straight to page {@code k} with one
+ * {@code WHERE id > cursor ORDER BY id LIMIT pageSize} query, instead of walking all earlier pages
+ * or scanning with {@code OFFSET}. The index is built with a single query that reads only the key
+ * and returns one row per page, so it stays small for large tables.
+ * <p>
+ * An index can be extended instead of rebuilt: the query then reads only the keys after the cursor of the
+ * previous index's last page, so refreshing a table that grows at the end costs as much as its new rows.
+ *
+ * @param rowCount the number of rows when the index was built
+ * @param pageSize the number of rows per page
+ * @param cursors  {@code cursors[k]} is the key after which page {@code k} starts; {@code cursors[0]} is 0
+ */
+
+public record PageIndex(int rowCount, int pageSize, int[] cursors) {
+
+    /**
+     * Returns the number of pages.
+     *
+     * @return the page count
+     */
+
+    public int pageCount() {
+        return cursors.length;
+    }
+
+    /**
+     * Returns the cursor to pass to the page query to read page {@code page}.
+     *
+     * @param page the zero-based page number
+     * @return the key of the last row of the previous page, or 0 for the first page
+     */
+
+    public int cursor(int page) {
+        return cursors[page];
+    }
+
+    /**
+     * Builds the page index query for a key column and a {@code FROM} clause.
+     * The query numbers the rows after a given key and keeps every {@code pageSize}-th row plus the last one,
+     * which carries the number of rows read. It needs window functions (MySQL 8).
+     *
+     * @param keyColumn  the unique, ascending key used as the page cursor
+     * @param fromClause the {@code FROM} clause of the paginated query, without a {@code WHERE} clause
+     * @return the SQL, with the key to start after and the page size as its parameters
+     */
+
+    static String sql(String keyColumn, String fromClause) {
+        return "SELECT k, rn, total FROM (SELECT " + keyColumn + " AS k, ROW_NUMBER() OVER (ORDER BY " + keyColumn
+                + ") AS rn, COUNT(*) OVER () AS total " + fromClause + " WHERE " + keyColumn + " > ?) ranked"
+                + " WHERE MOD(rn, ?) = 0 OR rn = total ORDER BY rn";
+    }
+
+    /**
+     * Runs a query built by {@link #sql(String, String)} and collects its result.
+     * <p>
+     * Given a previous index with the same page size, only the rows from its last page on are read and the
+     * cursors of the earlier pages are kept. This assumes rows are only added at the end of the key order:
+     * after rows were deleted or keys reused, pass {@code null} to rebuild the index.
+     *
+     * @param connection the connection to use; it is not closed
+     * @param sql        the page index query
+     * @param previous   the index to extend, or {@code null} to build it from the first row
+     * @param pageSize   the number of rows per page, must be positive
+     * @return the page index
+     * @throws SQLException if a database access error occurs
+     */
+
+    static PageIndex load(Connection connection, String sql, PageIndex previous, int pageSize) throws SQLException {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than 0.");
+        }
+        int keptPages = previous != null && previous.pageSize() == pageSize ? Math.max(previous.pageCount() - 1, 0) : 0;
+        int rowCount = keptPages * pageSize;
+        int[] boundaries = new int[keptPages];
+        int count = keptPages;
+        for (int page = 1; page <= keptPages; page++) {
+            boundaries[page - 1] = previous.cursor(page);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, keptPages > 0 ? previous.cursor(keptPages) : 0);
+            statement.setInt(2, pageSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    long rn = resultSet.getLong(2);
+                    rowCount = keptPages * pageSize + (int) resultSet.getLong(3);
+                    if (rn % pageSize == 0) {
+                        if (count == boundaries.length) {
+                            boundaries = Arrays.copyOf(boundaries, Math.max(16, count * 2));
+                        }
+                        boundaries[count++] = resultSet.getInt(1);
+                    }
+                }
+            }
+        }
+
+        int pageCount = (rowCount + pageSize - 1) / pageSize;
+        int[] cursors = new int[pageCount];
+        for (int page = 1; page < pageCount; page++) {
+            cursors[page] = boundaries[page - 1];
+        }
+        return new PageIndex(rowCount, pageSize, cursors);
+    }
+}
@@ -1,12 +1,23 @@
 package DataAccessLayer;
 
+import Connection.ConnectionFactory;
 import Model.Product;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
 /**
  * Data Access Object (DAO) class for the {@link Product} entity.
  * <p>
  * This class provides specific data access operations for the Product table.
- * It inherits generic CRUD operations from {@link AbstractDAO}.
+ * It inherits generic CRUD operations from {@link AbstractDAO} and adds an atomic
+ * stock reservation used when orders are placed.
  *
  * <p>Typical usage:
  * <pre>{@code
@@ -19,4 +30,76 @@ import Model.Product;
  */
 
 public class ProductDAO extends AbstractDAO<Product>{
+
+    private final String reserveStockSql =
+            "UPDATE " + getMetadata().getTableName() + " SET stock = stock - ? WHERE id = ? AND stock >= ?";
+
+    /**
+     * Atomically decrements the stock of several products in one transaction.
+     * <p>
+     * Each line is a guarded {@code UPDATE ... SET stock = stock - ? WHERE id = ? AND stock >= ?}, so the check
+     * and the decrement happen in the database and concurrent orders cannot oversell. All lines are sent in one
+     * batch. If any line fails, the whole reservation is rolled back.
+     *
+     * @param quantities the quantity to reserve, keyed by product ID
+     * @return the IDs of the products that do not exist or do not have enough stock; empty on success
+     */
+
+    public List<Integer> reserveStock(Map<Integer, Integer> quantities) {
+        Connection connection = null;
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            List<Integer> failed = reserveStock(connection, quantities);
+            if (failed.isEmpty()) {
+                connection.commit();
+            } else {
+                connection.rollback();
+            }
+            return failed;
+        } catch (SQLException e) {
+            rollback(connection);
+            LOGGER.log(Level.WARNING, "ProductDAO:reserveStock " + e.getMessage());
+            return new ArrayList<>(quantities.keySet());
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+    }
+
+    /**
+     * Atomically decrements the stock of several products using the caller's connection and transaction.
+     * The caller is responsible for rolling back when the returned list is not empty.
+     *
+     * @param connection the connection to use; it is neither committed nor closed
+     * @param quantities the quantity to reserve, keyed by product ID
+     * @return the IDs of the products that do not exist or do not have enough stock; empty on success
+     * @throws SQLException if a database access error occurs
+     */
+
+    public List<Integer> reserveStock(Connection connection, Map<Integer, Integer> quantities) throws SQLException {
+        List<Integer> failed = new ArrayList<>();
+        if (quantities.isEmpty()) {
+            return failed;
+        }
+
+        List<Integer> productIds = new ArrayList<>(quantities.size());
+        try (PreparedStatement statement = connection.prepareStatement(reserveStockSql)) {
+            for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+                statement.setInt(1, line.getValue());
+                statement.setInt(2, line.getKey());
+                statement.setInt(3, line.getValue());
+                statement.addBatch();
+                productIds.add(line.getKey());
+            }
+
+            int[] counts = statement.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0 || counts[i] == Statement.EXECUTE_FAILED) {
+                    failed.add(productIds.get(i));
+                }
+            }
+        }
+        return failed;
+    }
 }
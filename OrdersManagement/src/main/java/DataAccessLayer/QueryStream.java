@@ -0,0 +1,162 @@
+package DataAccessLayer;
+
+import Connection.ConnectionFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs a query with a streaming, server-side cursor and exposes its rows as a lazy {@link Stream}.
+ * <p>
+ * The statement is forward-only and read-only with a positive fetch size; together with the
+ * {@code useCursorFetch} connection property the MySQL driver then fetches {@link #FETCH_SIZE} rows
+ * at a time instead of buffering the whole result client-side, so memory stays constant regardless
+ * of the table size.
+ *
+ * <p>The connection, statement and result set stay open until the returned stream is closed, so callers
+ * must use it in a try-with-resources block. SQL errors raised while iterating are rethrown as
+ * {@link RuntimeException}.</p>
+ */
+
+final class QueryStream {
+
+    /**
+     * Number of rows fetched from the server per cursor round trip.
+     */
+    static final int FETCH_SIZE = 500;
+
+    private QueryStream() {
+    }
+
+    /**
+     * Binds the parameters of a query.
+     */
+    @FunctionalInterface
+    interface ParameterBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    /**
+     * Reads the current row of a result set.
+     *
+     * @param <T> the produced row type
+     */
+    @FunctionalInterface
+    interface RowReader<T> {
+        T read(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Creates the {@link RowReader} once the result set (and therefore its shape) is known.
+     *
+     * @param <T> the produced row type
+     */
+    @FunctionalInterface
+    interface ReaderFactory<T> {
+        RowReader<T> create(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Builds the filter of a half-open date range {@code [from, to)} on {@code column}.
+     * A {@code null} bound leaves that side of the range open.
+     *
+     * @param column the date or datetime column
+     * @param from   the inclusive lower bound, or {@code null}
+     * @param to     the exclusive upper bound, or {@code null}
+     * @return the conditions joined with {@code AND}, or an empty string if both bounds are {@code null}
+     */
+
+    static String dateRange(String column, Date from, Date to) {
+        if (from != null && to != null) {
+            return column + " >= ? AND " + column + " < ?";
+        }
+        if (from != null) {
+            return column + " >= ?";
+        }
+        return to != null ? column + " < ?" : "";
+    }
+
+    /**
+     * Binds the non-null bounds of a range built by {@link #dateRange(String, Date, Date)}, in order.
+     *
+     * @param from the inclusive lower bound, or {@code null}
+     * @param to   the exclusive upper bound, or {@code null}
+     * @return the binder
+     */
+
+    static ParameterBinder dateRangeBinder(Date from, Date to) {
+        return statement -> {
+            int index = 1;
+            if (from != null) {
+                statement.setTimestamp(index++, new Timestamp(from.getTime()));
+            }
+            if (to != null) {
+                statement.setTimestamp(index, new Timestamp(to.getTime()));
+            }
+        };
+    }
+
+    /**
+     * Executes a query on a pooled connection and returns its rows as a stream.
+     *
+     * @param sql     the query
+     * @param binder  binds the query parameters
+     * @param factory creates the row reader for the result set
+     * @param <T>     the row type
+     * @return a lazy stream; closing it releases the connection
+     * @throws SQLException if the query cannot be executed
+     */
+
+    static <T> Stream<T> open(String sql, ParameterBinder binder, ReaderFactory<T> factory) throws SQLException {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            binder.bind(statement);
+            resultSet = statement.executeQuery();
+            RowReader<T> reader = factory.create(resultSet);
+
+            Connection openConnection = connection;
+            PreparedStatement openStatement = statement;
+            ResultSet openResultSet = resultSet;
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!openResultSet.next()) {
+                            return false;
+                        }
+                        action.accept(reader.read(openResultSet));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Error streaming rows: " + e.getMessage(), e);
+                    }
+                }
+            };
+
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                ConnectionFactory.close(openResultSet);
+                ConnectionFactory.close(openStatement);
+                ConnectionFactory.close(openConnection);
+            });
+        } catch (SQLException | RuntimeException e) {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package DataAccessLayer;
+
+import Connection.ConnectionFactory;
+import Monitoring.Metrics;
+import Monitoring.OperationStats;
+import Monitoring.SqlExecutionEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Data Access Object (DAO) for sales reports.
+ * <p>
+ * Every report is a single {@code GROUP BY} query over the {@code sales_daily} rollup (see {@link SalesDailyDAO}),
+ * which already holds the units and revenue per day, product and client. A report therefore reads
+ * O(days) pre-aggregated rows through the primary key range on {@code day}, however many order lines
+ * there are, and transfers only one row per group. Each report is timed in the {@link Metrics} of the
+ * {@code SalesReport} entity.
+ *
+ * @see SalesReport
+ */
+
+public class ReportingDAO {
+
+    private static final String RANGE = " WHERE s.day >= ? AND s.day < ?";
+
+    private static final String REVENUE_BY_CLIENT_QUERY =
+            "SELECT s.clientId, COALESCE(c.name, 'Unknown'), SUM(s.revenue), SUM(s.units)"
+                    + " FROM sales_daily s LEFT JOIN Client c ON c.id = s.clientId" + RANGE
+                    + " GROUP BY s.clientId, c.name ORDER BY 3 DESC, 1";
+    private static final String PRODUCT_QUERY =
+            "SELECT s.productId, COALESCE(p.name, 'Unknown'), SUM(s.revenue), SUM(s.units)"
+                    + " FROM sales_daily s LEFT JOIN Product p ON p.id = s.productId" + RANGE
+                    + " GROUP BY s.productId, p.name";
+    private static final String REVENUE_BY_PRODUCT_QUERY = PRODUCT_QUERY + " ORDER BY 3 DESC, 1";
+    private static final String TOP_PRODUCTS_BY_REVENUE_QUERY = REVENUE_BY_PRODUCT_QUERY + " LIMIT ?";
+    private static final String TOP_PRODUCTS_BY_UNITS_QUERY = PRODUCT_QUERY + " ORDER BY 4 DESC, 1 LIMIT ?";
+    private static final String REVENUE_BY_DAY_QUERY =
+            "SELECT EXTRACT(YEAR FROM s.day) * 10000 + EXTRACT(MONTH FROM s.day) * 100"
+                    + " + EXTRACT(DAY FROM s.day) AS period, NULL, SUM(s.revenue), SUM(s.units)"
+                    + " FROM sales_daily s" + RANGE + " GROUP BY period ORDER BY period";
+    private static final String REVENUE_BY_MONTH_QUERY =
+            "SELECT EXTRACT(YEAR FROM s.day) * 100 + EXTRACT(MONTH FROM s.day) AS period, NULL,"
+                    + " SUM(s.revenue), SUM(s.units) FROM sales_daily s" + RANGE + " GROUP BY period ORDER BY period";
+
+    /**
+     * Aggregates the revenue and units sold of each client, highest revenue first.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one row per client: client ID, client name, revenue, units sold
+     * @throws RuntimeException if a SQL error occurs
+     */
+
+    public SalesReport revenueByClient(Date from, Date to) {
+        return report(REVENUE_BY_CLIENT_QUERY, from, to, 0, "revenueByClient");
+    }
+
+    /**
+     * Aggregates the revenue and units sold of each product, highest revenue first.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one row per product: product ID, product name, revenue, units sold
+     * @throws RuntimeException if a SQL error occurs
+     */
+
+    public SalesReport revenueByProduct(Date from, Date to) {
+        return report(REVENUE_BY_PRODUCT_QUERY, from, to, 0, "revenueByProduct");
+    }
+
+    /**
+     * Returns the {@code limit} best-selling products, by revenue or by units sold.
+     *
+     * @param from    the inclusive start of the range
+     * @param to      the exclusive end of the range
+     * @param limit   the maximum number of products
+     * @param byUnits rank by units sold instead of revenue
+     * @return one row per product: product ID, product name, revenue, units sold
+     * @throws RuntimeException if a SQL error occurs
+     */
+
+    public SalesReport topProducts(Date from, Date to, int limit, boolean byUnits) {
+        return report(byUnits ? TOP_PRODUCTS_BY_UNITS_QUERY : TOP_PRODUCTS_BY_REVENUE_QUERY, from, to, limit,
+                "topProducts");
+    }
+
+    /**
+     * Aggregates the revenue and units sold of each day that has orders, in date order.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one row per day: {@code yyyyMMdd}, {@code yyyy-MM-dd}, revenue, units sold
+     * @throws RuntimeException if a SQL error occurs
+     */
+
+    public SalesReport revenueByDay(Date from, Date to) {
+        SalesReport report = report(REVENUE_BY_DAY_QUERY, from, to, 0, "revenueByDay");
+        for (int i = 0; i < report.size(); i++) {
+            int day = report.keys()[i];
+            report.labels()[i] = String.format("%04d-%02d-%02d", day / 10000, day / 100 % 100, day % 100);
+        }
+        return report;
+    }
+
+    /**
+     * Aggregates the revenue and units sold of each month that has orders, in date order.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one row per month: {@code yyyyMM}, {@code yyyy-MM}, revenue, units sold
+     * @throws RuntimeException if a SQL error occurs
+     */
+
+    public SalesReport revenueByMonth(Date from, Date to) {
+        SalesReport report = report(REVENUE_BY_MONTH_QUERY, from, to, 0, "revenueByMonth");
+        for (int i = 0; i < report.size(); i++) {
+            int month = report.keys()[i];
+            report.labels()[i] = String.format("%04d-%02d", month / 100, month % 100);
+        }
+        return report;
+    }
+
+    /**
+     * Runs one report query with the date range as its first two parameters and, if {@code limit > 0},
+     * the limit as the third.
+     */
+
+    private SalesReport report(String query, Date from, Date to, int limit, String operation) {
+        OperationStats stats = Metrics.operation("SalesReport", operation);
+        SqlExecutionEvent execution = stats.begin();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setTimestamp(1, new Timestamp(from.getTime()));
+            statement.setTimestamp(2, new Timestamp(to.getTime()));
+            if (limit > 0) {
+                statement.setInt(3, limit);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                SalesReport report = SalesReport.read(resultSet);
+                stats.success(execution, report.size());
+                return report;
+            }
+        } catch (SQLException e) {
+            stats.failure(execution);
+            throw new RuntimeException("ReportingDAO:" + operation + " " + e.getMessage(), e);
+        }
+    }
+}
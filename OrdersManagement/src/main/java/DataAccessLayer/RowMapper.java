@@ -0,0 +1,273 @@
+package DataAccessLayer;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps the rows of a {@link ResultSet} to JavaBeans of type {@code T}.
+ * <p>
+ * A mapper is compiled once per entity class and result set shape (the ordered list of column labels)
+ * and cached in a {@link ClassValue}. Compilation resolves the no-arg constructor and the setter of every
+ * mapped column into {@link LambdaMetafactory} lambdas bound to a column index, so mapping a row is a
+ * constructor call plus one typed {@code ResultSet} getter and one direct setter call per column,
+ * without reflection lookups or boxing of primitive columns.
+ *
+ * <p>Columns are matched to fields by name (case-insensitive); columns without a matching field and
+ * setter are ignored.</p>
+ *
+ * @param <T> the entity type produced by this mapper
+ */
+
+public final class RowMapper<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<Map<String, RowMapper<?>>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected Map<String, RowMapper<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Supplier<T> constructor;
+    private final ColumnBinder<T>[] binders;
+
+    private RowMapper(Supplier<T> constructor, ColumnBinder<T>[] binders) {
+        this.constructor = constructor;
+        this.binders = binders;
+    }
+
+    /**
+     * Returns the mapper for {@code type} and the shape of {@code resultSet}, compiling it on first use.
+     *
+     * @param type      the entity class
+     * @param resultSet the result set whose columns will be mapped
+     * @param <T>       the entity type
+     * @return the cached mapper
+     * @throws SQLException             if the result set metadata cannot be read
+     * @throws IllegalArgumentException if {@code type} has no no-arg constructor
+     */
+
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<T> type, ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        int[] sqlTypes = new int[columnCount];
+        StringBuilder shape = new StringBuilder();
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+            sqlTypes[i] = metaData.getColumnType(i + 1);
+            shape.append(labels[i]).append(':').append(sqlTypes[i]).append(',');
+        }
+
+        Map<String, RowMapper<?>> byShape = MAPPERS.get(type);
+        return (RowMapper<T>) byShape.computeIfAbsent(shape.toString(), key -> compile(type, labels, sqlTypes));
+    }
+
+    /**
+     * Materializes the current row of the result set.
+     *
+     * @param resultSet a result set positioned on a row
+     * @return the new entity
+     * @throws SQLException if a column cannot be read
+     */
+
+    public T mapRow(ResultSet resultSet) throws SQLException {
+        T instance = constructor.get();
+        for (ColumnBinder<T> binder : binders) {
+            binder.bind(instance, resultSet);
+        }
+        return instance;
+    }
+
+    /**
+     * Materializes every remaining row of the result set.
+     *
+     * @param resultSet the result set to consume
+     * @return the mapped entities, in result set order
+     * @throws SQLException if the result set cannot be read
+     */
+
+    public List<T> mapAll(ResultSet resultSet) throws SQLException {
+        List<T> list = new ArrayList<>();
+        while (resultSet.next()) {
+            list.add(mapRow(resultSet));
+        }
+        return list;
+    }
+
+    /**
+     * Builds the constructor and column binders for one entity class and result set shape.
+     */
+
+    @SuppressWarnings("unchecked")
+    private static <T> RowMapper<T> compile(Class<T> type, String[] labels, int[] sqlTypes) {
+        Map<String, Field> fields = new HashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.put(field.getName().toLowerCase(Locale.ROOT), field);
+            }
+        }
+
+        List<ColumnBinder<T>> binders = new ArrayList<>();
+        for (int i = 0; i < labels.length; i++) {
+            Field field = fields.get(labels[i].toLowerCase(Locale.ROOT));
+            if (field == null) {
+                continue;
+            }
+            MethodHandle setter = findSetter(type, field);
+            if (setter != null) {
+                binders.add(binderFor(type, field.getType(), setter, i + 1, sqlTypes[i]));
+            }
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        ColumnBinder<T>[] bound = binders.toArray(new ColumnBinder[0]);
+        return new RowMapper<>(constructorFor(type), bound);
+    }
+
+    /**
+     * Resolves the no-arg constructor of {@code type} into a {@link Supplier}.
+     */
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> constructorFor(Class<T> type) {
+        MethodHandle ctor;
+        try {
+            ctor = LOOKUP.findConstructor(type, MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No no-arg constructor found for class " + type.getName(), e);
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                    MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                    ctor, MethodType.methodType(type));
+            return (Supplier<T>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            return () -> {
+                try {
+                    return (T) ctor.invoke();
+                } catch (Throwable t) {
+                    throw new IllegalStateException("Cannot instantiate " + type.getName(), t);
+                }
+            };
+        }
+    }
+
+    /**
+     * Finds the public JavaBean setter for a field, or {@code null} if there is none.
+     */
+
+    private static MethodHandle findSetter(Class<?> type, Field field) {
+        String name = field.getName();
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        try {
+            return LOOKUP.findVirtual(type, setterName, MethodType.methodType(void.class, field.getType()));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates the binder that reads column {@code index} with the getter matching the field type and
+     * passes it to the setter.
+     */
+
+    @SuppressWarnings("unchecked")
+    private static <T> ColumnBinder<T> binderFor(Class<T> type, Class<?> fieldType, MethodHandle setter,
+                                                 int index, int sqlType) {
+        if (fieldType == int.class) {
+            ObjIntConsumer<T> set = (ObjIntConsumer<T>) lambda(ObjIntConsumer.class, "accept", setter, type, int.class);
+            return (target, rs) -> set.accept(target, rs.getInt(index));
+        }
+        if (fieldType == long.class) {
+            ObjLongConsumer<T> set = (ObjLongConsumer<T>) lambda(ObjLongConsumer.class, "accept", setter, type, long.class);
+            return (target, rs) -> set.accept(target, rs.getLong(index));
+        }
+        if (fieldType == double.class) {
+            ObjDoubleConsumer<T> set = (ObjDoubleConsumer<T>) lambda(ObjDoubleConsumer.class, "accept", setter, type, double.class);
+            return (target, rs) -> set.accept(target, rs.getDouble(index));
+        }
+
+        Class<?> boxed = MethodType.methodType(fieldType).wrap().returnType();
+        BiConsumer<T, Object> set = (BiConsumer<T, Object>) lambda(BiConsumer.class, "accept", setter, type, boxed);
+        if (fieldType == String.class) {
+            return (target, rs) -> set.accept(target, rs.getString(index));
+        }
+        if (fieldType == java.util.Date.class) {
+            if (sqlType == Types.DATE) {
+                return (target, rs) -> set.accept(target, rs.getDate(index));
+            }
+            return (target, rs) -> set.accept(target, rs.getTimestamp(index));
+        }
+        if (fieldType == boolean.class) {
+            return (target, rs) -> set.accept(target, rs.getBoolean(index));
+        }
+        return (target, rs) -> set.accept(target, rs.getObject(index, boxed));
+    }
+
+    /**
+     * Spins a functional interface instance that calls {@code setter} directly. Falls back to a
+     * {@link MethodHandle} invocation if the setter cannot be linked by {@link LambdaMetafactory}.
+     */
+
+    private static Object lambda(Class<?> iface, String method, MethodHandle setter, Class<?> type, Class<?> valueType) {
+        MethodType erased = MethodType.methodType(void.class, Object.class,
+                valueType.isPrimitive() ? valueType : Object.class);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, method, MethodType.methodType(iface),
+                    erased, setter, MethodType.methodType(void.class, type, valueType));
+            return site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle generic = setter.asType(erased);
+            if (iface == ObjIntConsumer.class) {
+                return (ObjIntConsumer<Object>) (t, v) -> invokeUnchecked(generic, t, v);
+            }
+            if (iface == ObjLongConsumer.class) {
+                return (ObjLongConsumer<Object>) (t, v) -> invokeUnchecked(generic, t, v);
+            }
+            if (iface == ObjDoubleConsumer.class) {
+                return (ObjDoubleConsumer<Object>) (t, v) -> invokeUnchecked(generic, t, v);
+            }
+            return (BiConsumer<Object, Object>) (t, v) -> invokeUnchecked(generic, t, v);
+        }
+    }
+
+    private static void invokeUnchecked(MethodHandle handle, Object target, Object value) {
+        try {
+            handle.invoke(target, value);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot set property on " + target.getClass().getName(), t);
+        }
+    }
+
+    /**
+     * Copies one column of the current row into an entity.
+     */
+
+    @FunctionalInterface
+    private interface ColumnBinder<T> {
+        void bind(T target, ResultSet resultSet) throws SQLException;
+    }
+}
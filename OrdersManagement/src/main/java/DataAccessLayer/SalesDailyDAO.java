@@ -0,0 +1,245 @@
+package DataAccessLayer;
+
+import Connection.ConnectionFactory;
+import Model.OrderItem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Data Access Object (DAO) for the {@code sales_daily} rollup table.
+ * <p>
+ * {@code sales_daily} holds one row per day, product and client with the units sold and the revenue,
+ * so sales reports read O(days) pre-aggregated rows instead of every order line. The table is maintained
+ * incrementally inside the transactions that write orders: {@link #addOrder} when an order is placed and
+ * {@link #removeOrder} / {@link #removeOrderItem} before an order or an item is deleted, and
+ * {@link #removeClient} / {@link #removeProduct} when deleting a client or a product cascades to its orders
+ * or order lines. Rows are upserted in product order, so concurrent orders lock them in the same order.
+ * {@link #rebuild(Date, Date)} recomputes the rollup from the order tables, e.g. after SQL that bypassed the
+ * application. The DDL is in {@code SQLDump/sales-daily.sql}.
+ */
+
+public class SalesDailyDAO {
+    private static final Logger LOGGER = Logger.getLogger(SalesDailyDAO.class.getName());
+
+    private static final String UPSERT_QUERY =
+            "INSERT INTO sales_daily (day, productId, clientId, units, revenue) VALUES (?, ?, ?, ?, ?)"
+                    + " ON DUPLICATE KEY UPDATE units = units + VALUES(units), revenue = revenue + VALUES(revenue)";
+    private static final String DELETE_EMPTY_QUERY =
+            "DELETE FROM sales_daily WHERE day = ? AND productId = ? AND clientId = ? AND units <= 0";
+    private static final String LINES_QUERY = "SELECT o.orderData, o.clientId, oi.productId, oi.quantity, oi.price"
+            + " FROM Orders o JOIN OrderItem oi ON oi.orderId = o.id";
+    private static final String ORDER_LINES_QUERY = LINES_QUERY + " WHERE o.id = ?";
+    private static final String ITEM_LINES_QUERY = LINES_QUERY + " WHERE oi.id = ?";
+    private static final String DELETE_QUERY = "DELETE FROM sales_daily";
+    private static final String DELETE_CLIENT_QUERY = DELETE_QUERY + " WHERE clientId = ?";
+    private static final String DELETE_PRODUCT_QUERY = DELETE_QUERY + " WHERE productId = ?";
+    private static final String REBUILD_QUERY =
+            "INSERT INTO sales_daily (day, productId, clientId, units, revenue)"
+                    + " SELECT o.orderData, oi.productId, o.clientId, SUM(oi.quantity), SUM(oi.quantity * oi.price)"
+                    + " FROM Orders o JOIN OrderItem oi ON oi.orderId = o.id";
+    private static final String REBUILD_GROUP_BY = " GROUP BY o.orderData, oi.productId, o.clientId"
+            + " ON DUPLICATE KEY UPDATE units = VALUES(units), revenue = VALUES(revenue)";
+
+    /**
+     * Adds the lines of a new order to the rollup using the caller's connection.
+     *
+     * @param connection the connection of the transaction that stores the order; it is neither committed nor closed
+     * @param orderDate  the date of the order
+     * @param clientId   the ID of the client who placed the order
+     * @param items      the lines of the order
+     * @throws SQLException if a database access error occurs
+     */
+
+    public void addOrder(Connection connection, Date orderDate, int clientId, List<OrderItem> items) throws SQLException {
+        Map<Integer, double[]> totals = new TreeMap<>();
+        for (OrderItem item : items) {
+            addLine(totals, item.getProductId(), item.getQuantity(), item.getPrice());
+        }
+        upsert(connection, new java.sql.Date(orderDate.getTime()), clientId, totals, 1);
+    }
+
+    /**
+     * Subtracts the lines of an order from the rollup using the caller's connection. Call it in the
+     * transaction that deletes the order, before the delete.
+     *
+     * @param connection the connection to use; it is neither committed nor closed
+     * @param orderId    the ID of the order
+     * @throws SQLException if a database access error occurs
+     */
+
+    public void removeOrder(Connection connection, int orderId) throws SQLException {
+        subtract(connection, ORDER_LINES_QUERY, orderId);
+    }
+
+    /**
+     * Subtracts one order line from the rollup using the caller's connection. Call it in the
+     * transaction that deletes the line, before the delete.
+     *
+     * @param connection  the connection to use; it is neither committed nor closed
+     * @param orderItemId the ID of the order line
+     * @throws SQLException if a database access error occurs
+     */
+
+    public void removeOrderItem(Connection connection, int orderItemId) throws SQLException {
+        subtract(connection, ITEM_LINES_QUERY, orderItemId);
+    }
+
+    /**
+     * Removes every rollup row of a client using the caller's connection. Call it in the transaction that
+     * deletes the client, whose orders are then deleted by the foreign key cascade.
+     *
+     * @param connection the connection to use; it is neither committed nor closed
+     * @param clientId   the ID of the client
+     * @throws SQLException if a database access error occurs
+     */
+
+    public void removeClient(Connection connection, int clientId) throws SQLException {
+        deleteRows(connection, DELETE_CLIENT_QUERY, clientId);
+    }
+
+    /**
+     * Removes every rollup row of a product using the caller's connection. Call it in the transaction that
+     * deletes the product, whose order lines are then deleted by the foreign key cascade.
+     *
+     * @param connection the connection to use; it is neither committed nor closed
+     * @param productId  the ID of the product
+     * @throws SQLException if a database access error occurs
+     */
+
+    public void removeProduct(Connection connection, int productId) throws SQLException {
+        deleteRows(connection, DELETE_PRODUCT_QUERY, productId);
+    }
+
+    /**
+     * Recomputes the rollup rows whose day lies in {@code [from, to)} from the {@code Orders} and
+     * {@code OrderItem} tables, in one transaction.
+     *
+     * @param from the inclusive start of the range, or {@code null} for no lower bound
+     * @param to   the exclusive end of the range, or {@code null} for no upper bound
+     * @return the number of rollup rows written
+     * @throws RuntimeException if a SQL error occurs
+     */
+
+    public int rebuild(Date from, Date to) {
+        String dayRange = QueryStream.dateRange("day", from, to);
+        String orderRange = QueryStream.dateRange("o.orderData", from, to);
+        QueryStream.ParameterBinder binder = QueryStream.dateRangeBinder(from, to);
+
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            try (PreparedStatement delete = connection.prepareStatement(
+                    DELETE_QUERY + (dayRange.isEmpty() ? "" : " WHERE " + dayRange))) {
+                binder.bind(delete);
+                delete.executeUpdate();
+            }
+            int rows;
+            try (PreparedStatement insert = connection.prepareStatement(
+                    REBUILD_QUERY + (orderRange.isEmpty() ? "" : " WHERE " + orderRange) + REBUILD_GROUP_BY)) {
+                binder.bind(insert);
+                rows = insert.executeUpdate();
+            }
+            connection.commit();
+            return rows;
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new RuntimeException("Error rebuilding sales_daily: " + e.getMessage(), e);
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+    }
+
+    /**
+     * Reads the lines selected by {@code query}, which all belong to one order, and upserts their negated
+     * totals, deleting the rollup rows that no longer have any units.
+     */
+
+    private void subtract(Connection connection, String query, int id) throws SQLException {
+        Map<Integer, double[]> totals = new TreeMap<>();
+        java.sql.Date day = null;
+        int clientId = 0;
+        try (PreparedStatement select = connection.prepareStatement(query)) {
+            select.setInt(1, id);
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    day = resultSet.getDate(1);
+                    clientId = resultSet.getInt(2);
+                    addLine(totals, resultSet.getInt(3), resultSet.getInt(4), resultSet.getDouble(5));
+                }
+            }
+        }
+        if (totals.isEmpty()) {
+            return;
+        }
+        upsert(connection, day, clientId, totals, -1);
+        try (PreparedStatement deleteEmpty = connection.prepareStatement(DELETE_EMPTY_QUERY)) {
+            for (int productId : totals.keySet()) {
+                deleteEmpty.setDate(1, day);
+                deleteEmpty.setInt(2, productId);
+                deleteEmpty.setInt(3, clientId);
+                deleteEmpty.addBatch();
+            }
+            deleteEmpty.executeBatch();
+        }
+    }
+
+    /**
+     * Deletes the rollup rows selected by {@code query}, whose only parameter is {@code id}.
+     */
+
+    private static void deleteRows(Connection connection, String query, int id) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(query)) {
+            delete.setInt(1, id);
+            delete.executeUpdate();
+        }
+    }
+
+    /**
+     * Adds one order line to the units and revenue of its product.
+     */
+
+    private static void addLine(Map<Integer, double[]> totals, int productId, int quantity, double price) {
+        double[] total = totals.computeIfAbsent(productId, key -> new double[2]);
+        total[0] += quantity;
+        total[1] += quantity * price;
+    }
+
+    /**
+     * Upserts the per-product totals of one day and client, multiplied by {@code sign}, in product order.
+     */
+
+    private static void upsert(Connection connection, java.sql.Date day, int clientId, Map<Integer, double[]> totals,
+                               int sign) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_QUERY)) {
+            for (Map.Entry<Integer, double[]> entry : totals.entrySet()) {
+                statement.setDate(1, day);
+                statement.setInt(2, entry.getKey());
+                statement.setInt(3, clientId);
+                statement.setLong(4, sign * (long) entry.getValue()[0]);
+                statement.setDouble(5, sign * entry.getValue()[1]);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "SalesDailyDAO:rollback " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package DataAccessLayer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * The result of a sales aggregation: one row per group, stored column-wise in primitive arrays.
+ * <p>
+ * Row {@code i} is made of {@code keys[i]}, {@code labels[i]}, {@code revenue[i]} and {@code counts[i]}.
+ * The key depends on the report: a client ID, a product ID or a period ({@code yyyyMMdd} for days,
+ * {@code yyyyMM} for months); the count is always the number of units sold.
+ * Keeping the columns in arrays makes a report a handful of objects, whatever the number of groups.
+ *
+ * @param keys    the group keys
+ * @param labels  the display names of the groups (client or product name, or the period as text)
+ * @param revenue the revenue of each group
+ * @param counts  the units sold in each group
+ */
+
+public record SalesReport(int[] keys, String[] labels, double[] revenue, long[] counts) {
+
+    /**
+     * Returns the number of groups.
+     *
+     * @return the row count
+     */
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the total revenue of all groups.
+     *
+     * @return the sum of {@link #revenue()}
+     */
+
+    public double totalRevenue() {
+        double total = 0;
+        for (double value : revenue) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * Reads an aggregation result whose columns are, in order, the key, the label, the revenue and the count.
+     *
+     * @param resultSet the result set, read to its end; it is not closed
+     * @return the report
+     * @throws SQLException if a database access error occurs
+     */
+
+    static SalesReport read(ResultSet resultSet) throws SQLException {
+        int size = 0;
+        int[] keys = new int[16];
+        String[] labels = new String[16];
+        double[] revenue = new double[16];
+        long[] counts = new long[16];
+        while (resultSet.next()) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                labels = Arrays.copyOf(labels, size * 2);
+                revenue = Arrays.copyOf(revenue, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            keys[size] = resultSet.getInt(1);
+            labels[size] = resultSet.getString(2);
+            revenue[size] = resultSet.getDouble(3);
+            counts[size] = resultSet.getLong(4);
+            size++;
+        }
+        return new SalesReport(Arrays.copyOf(keys, size), Arrays.copyOf(labels, size),
+                Arrays.copyOf(revenue, size), Arrays.copyOf(counts, size));
+    }
+}
@@ -0,0 +1,107 @@
+package Export;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * One column of an export: its name and how to write its value from a row object.
+ * <p>
+ * The factories take primitive extractors where possible, so numeric values reach the {@link ExportWriter}
+ * without boxing.
+ *
+ * @param <T> the row type
+ */
+
+public interface ExportColumn<T> {
+
+    /**
+     * Returns the column name, used in the CSV header and as the JSON key.
+     *
+     * @return the name
+     */
+    String name();
+
+    /**
+     * Writes the value of this column for one row.
+     *
+     * @param row the row object
+     * @param out the writer
+     * @throws IOException if the value cannot be written
+     */
+    void write(T row, ExportWriter out) throws IOException;
+
+    /**
+     * Creates an integer column.
+     *
+     * @param name   the column name
+     * @param getter extracts the value
+     * @param <T>    the row type
+     * @return the column
+     */
+    static <T> ExportColumn<T> ofInt(String name, ToIntFunction<T> getter) {
+        return of(name, (row, out) -> out.writeLong(getter.applyAsInt(row)));
+    }
+
+    /**
+     * Creates a money column, written with two decimals.
+     *
+     * @param name   the column name
+     * @param getter extracts the value
+     * @param <T>    the row type
+     * @return the column
+     */
+    static <T> ExportColumn<T> ofMoney(String name, ToDoubleFunction<T> getter) {
+        return of(name, (row, out) -> out.writeMoney(getter.applyAsDouble(row)));
+    }
+
+    /**
+     * Creates a text column.
+     *
+     * @param name   the column name
+     * @param getter extracts the value, may return {@code null}
+     * @param <T>    the row type
+     * @return the column
+     */
+    static <T> ExportColumn<T> ofText(String name, Function<T, String> getter) {
+        return of(name, (row, out) -> out.writeText(getter.apply(row)));
+    }
+
+    /**
+     * Creates a date and time column.
+     *
+     * @param name   the column name
+     * @param getter extracts the value, may return {@code null}
+     * @param <T>    the row type
+     * @return the column
+     */
+    static <T> ExportColumn<T> ofDate(String name, Function<T, Date> getter) {
+        return of(name, (row, out) -> out.writeDate(getter.apply(row)));
+    }
+
+    private static <T> ExportColumn<T> of(String name, ValueWriter<T> writer) {
+        return new ExportColumn<>() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void write(T row, ExportWriter out) throws IOException {
+                writer.write(row, out);
+            }
+        };
+    }
+
+    /**
+     * Writes one value of a row.
+     *
+     * @param <T> the row type
+     */
+    @FunctionalInterface
+    interface ValueWriter<T> {
+        void write(T row, ExportWriter out) throws IOException;
+    }
+}
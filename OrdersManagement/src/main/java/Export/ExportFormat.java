@@ -0,0 +1,34 @@
+package Export;
+
+/**
+ * The file formats supported by {@link ExportWriter}.
+ */
+
+public enum ExportFormat {
+
+    /**
+     * Comma-separated values with a header line; text fields are quoted only when needed (RFC 4180).
+     */
+    CSV(".csv"),
+
+    /**
+     * JSON Lines: one JSON object per line, keyed by column name.
+     */
+    JSONL(".jsonl");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the usual file name extension of the format, including the dot.
+     *
+     * @return the extension
+     */
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,405 @@
+package Export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes rows to a file in CSV or JSON Lines format through a {@link FileChannel}, optionally gzip-compressed.
+ * <p>
+ * Values are appended to one reusable {@link CharBuffer}, which is encoded to UTF-8 into one reusable
+ * {@link ByteBuffer} and written to the channel whenever it fills up. Numbers, money amounts and dates are
+ * formatted digit by digit into the buffer, so writing a row allocates nothing and memory use does not depend
+ * on the number of rows.
+ *
+ * <p>A row is written by calling one {@code write...} method per column, in column order, followed by
+ * {@link #endRow()}. Money amounts are written with two decimals; dates as {@code yyyy-MM-dd HH:mm:ss}
+ * in the default time zone. {@code null} values are written as empty CSV fields or JSON {@code null}.</p>
+ */
+
+public final class ExportWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportFormat format;
+    private final FileChannel file;
+    private final GZIPOutputStream gzip;
+    private final WritableByteChannel channel;
+    private final char[][] jsonKeys;
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer bytes;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final char[] digits = new char[20];
+    private final Calendar calendar = Calendar.getInstance();
+    private int column;
+    private long rowCount;
+
+    /**
+     * Creates (or truncates) {@code path} and writes the CSV header line, if any.
+     *
+     * @param path    the output file
+     * @param format  the file format
+     * @param gzip    whether to gzip-compress the output
+     * @param columns the column names, in the order the values will be written
+     * @throws IOException if the file cannot be created
+     */
+
+    public ExportWriter(Path path, ExportFormat format, boolean gzip, String[] columns) throws IOException {
+        this.format = format;
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (gzip) {
+            OutputStream out = Channels.newOutputStream(file);
+            this.gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+            this.channel = Channels.newChannel(this.gzip);
+            this.bytes = ByteBuffer.allocate(BUFFER_SIZE * 3);
+        } else {
+            this.gzip = null;
+            this.channel = file;
+            this.bytes = ByteBuffer.allocateDirect(BUFFER_SIZE * 3);
+        }
+
+        this.jsonKeys = new char[columns.length][];
+        if (format == ExportFormat.JSONL) {
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < columns.length; i++) {
+                key.setLength(0);
+                key.append('"');
+                for (int j = 0; j < columns[i].length(); j++) {
+                    appendJsonChar(key, columns[i].charAt(j));
+                }
+                jsonKeys[i] = key.append("\":").toString().toCharArray();
+            }
+        } else {
+            for (String name : columns) {
+                writeText(name);
+            }
+            append('\n');
+            column = 0;
+        }
+    }
+
+    /**
+     * Writes an integer value.
+     *
+     * @param value the value
+     * @throws IOException if the output cannot be written
+     */
+
+    public void writeLong(long value) throws IOException {
+        nextField();
+        appendLong(value);
+    }
+
+    /**
+     * Writes a money amount, rounded to two decimals.
+     *
+     * @param value the amount
+     * @throws IOException if the output cannot be written
+     */
+
+    public void writeMoney(double value) throws IOException {
+        nextField();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeNull();
+            return;
+        }
+        long cents = Math.round(value * 100);
+        if (cents < 0) {
+            append('-');
+            cents = -cents;
+        }
+        appendLong(cents / 100);
+        append('.');
+        long fraction = cents % 100;
+        append((char) ('0' + fraction / 10));
+        append((char) ('0' + fraction % 10));
+    }
+
+    /**
+     * Writes a text value, quoted and escaped as the format requires.
+     *
+     * @param value the text, or {@code null}
+     * @throws IOException if the output cannot be written
+     */
+
+    public void writeText(String value) throws IOException {
+        nextField();
+        if (value == null) {
+            writeNull();
+        } else if (format == ExportFormat.JSONL) {
+            appendJsonString(value);
+        } else {
+            appendCsvField(value);
+        }
+    }
+
+    /**
+     * Writes a date and time as {@code yyyy-MM-dd HH:mm:ss}.
+     *
+     * @param value the date, or {@code null}
+     * @throws IOException if the output cannot be written
+     */
+
+    public void writeDate(Date value) throws IOException {
+        nextField();
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        calendar.setTimeInMillis(value.getTime());
+        boolean quoted = format == ExportFormat.JSONL;
+        if (quoted) {
+            append('"');
+        }
+        appendPadded(calendar.get(Calendar.YEAR), 4);
+        append('-');
+        appendPadded(calendar.get(Calendar.MONTH) + 1, 2);
+        append('-');
+        appendPadded(calendar.get(Calendar.DAY_OF_MONTH), 2);
+        append(' ');
+        appendPadded(calendar.get(Calendar.HOUR_OF_DAY), 2);
+        append(':');
+        appendPadded(calendar.get(Calendar.MINUTE), 2);
+        append(':');
+        appendPadded(calendar.get(Calendar.SECOND), 2);
+        if (quoted) {
+            append('"');
+        }
+    }
+
+    /**
+     * Ends the current row.
+     *
+     * @throws IOException if the output cannot be written
+     */
+
+    public void endRow() throws IOException {
+        if (format == ExportFormat.JSONL) {
+            if (column == 0) {
+                append('{');
+            }
+            append('}');
+        }
+        append('\n');
+        column = 0;
+        rowCount++;
+    }
+
+    /**
+     * Returns the number of rows written so far.
+     *
+     * @return the row count
+     */
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Writes the buffered output, finishes the gzip stream if any, and closes the file.
+     *
+     * @throws IOException if the output cannot be written
+     */
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain(true);
+            if (gzip != null) {
+                gzip.finish();
+                gzip.flush();
+            }
+        } finally {
+            if (gzip != null) {
+                gzip.close();
+            }
+            file.close();
+        }
+    }
+
+    private void writeNull() throws IOException {
+        if (format == ExportFormat.JSONL) {
+            ensureRoom(4);
+            chars.put("null");
+        }
+    }
+
+    /**
+     * Starts the next field of the row: the separator and, for JSON Lines, the key.
+     */
+
+    private void nextField() throws IOException {
+        if (format == ExportFormat.JSONL) {
+            char[] key = jsonKeys[column];
+            ensureRoom(key.length + 1);
+            chars.put(column == 0 ? '{' : ',');
+            chars.put(key);
+        } else if (column > 0) {
+            append(',');
+        }
+        column++;
+    }
+
+    private void appendCsvField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            appendRaw(value);
+            return;
+        }
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                append('"');
+            }
+            append(c);
+        }
+        append('"');
+    }
+
+    private void appendJsonString(String value) throws IOException {
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                append(c);
+            } else {
+                ensureRoom(6);
+                appendJsonChar(chars, c);
+            }
+        }
+        append('"');
+    }
+
+    /**
+     * Appends one character of a JSON string, escaped if needed (at most six characters).
+     */
+
+    private static void appendJsonChar(Appendable out, char c) {
+        try {
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void appendRaw(String value) throws IOException {
+        int offset = 0;
+        while (offset < value.length()) {
+            if (!chars.hasRemaining()) {
+                drain(false);
+            }
+            int count = Math.min(chars.remaining(), value.length() - offset);
+            chars.put(value, offset, offset + count);
+            offset += count;
+        }
+    }
+
+    private void appendLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            appendRaw(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        ensureRoom(digits.length - position);
+        chars.put(digits, position, digits.length - position);
+    }
+
+    private void appendPadded(int value, int width) throws IOException {
+        ensureRoom(width);
+        for (int divisor = (int) Math.pow(10, width - 1); divisor > 0; divisor /= 10) {
+            chars.put((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private void append(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            drain(false);
+        }
+        chars.put(c);
+    }
+
+    /**
+     * Makes room for {@code count} characters in the buffer, writing out what it holds if needed.
+     */
+
+    private void ensureRoom(int count) throws IOException {
+        if (chars.remaining() < count) {
+            drain(false);
+            if (chars.remaining() < count) {
+                throw new IOException("Value of " + count + " characters does not fit the export buffer.");
+            }
+        }
+    }
+
+    /**
+     * Encodes the buffered characters and writes them to the channel.
+     */
+
+    private void drain(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isUnderflow()) {
+                break;
+            }
+            writeBytes();
+        }
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes();
+            }
+        }
+        writeBytes();
+        chars.compact();
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
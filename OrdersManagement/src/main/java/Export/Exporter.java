@@ -0,0 +1,52 @@
+package Export;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of rows to a file with an {@link ExportWriter}.
+ * <p>
+ * Rows are pulled from the stream one at a time and written immediately, so with a stream backed by a
+ * server-side cursor the export runs in constant memory whatever the number of rows. The stream is closed
+ * when the export ends, which releases its database connection.
+ */
+
+public final class Exporter {
+
+    private Exporter() {
+    }
+
+    /**
+     * Exports every row of {@code rows} to {@code path}.
+     *
+     * @param rows    the rows to export; closed by this method
+     * @param columns the columns to write, in order
+     * @param path    the output file, created or truncated
+     * @param format  the file format
+     * @param gzip    whether to gzip-compress the output
+     * @param <T>     the row type
+     * @return the number of rows written
+     * @throws IOException if the file cannot be written
+     */
+
+    public static <T> long export(Stream<T> rows, List<ExportColumn<T>> columns, Path path,
+                                  ExportFormat format, boolean gzip) throws IOException {
+        String[] names = columns.stream().map(ExportColumn::name).toArray(String[]::new);
+        List<ExportColumn<T>> order = List.copyOf(columns);
+
+        try (rows; ExportWriter writer = new ExportWriter(path, format, gzip, names)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                for (ExportColumn<T> column : order) {
+                    column.write(row, writer);
+                }
+                writer.endRow();
+            }
+            return writer.getRowCount();
+        }
+    }
+}
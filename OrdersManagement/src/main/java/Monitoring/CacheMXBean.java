@@ -0,0 +1,45 @@
+package Monitoring;
+
+/**
+ * JMX view of an in-memory cache: how many entries it holds and how many lookups it answered without
+ * querying the database.
+ */
+
+public interface CacheMXBean {
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the size of the cache
+     */
+
+    int getSize();
+
+    /**
+     * Returns the number of lookups answered by the cache.
+     *
+     * @return the hit count
+     */
+
+    long getHitCount();
+
+    /**
+     * Returns the number of lookups that had to query the database.
+     *
+     * @return the miss count
+     */
+
+    long getMissCount();
+
+    /**
+     * Returns the share of lookups answered by the cache.
+     *
+     * @return the hit ratio between 0 and 1, or 0 before the first lookup
+     */
+
+    default double getHitRatio() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,142 @@
+package Monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Values below {@code 32} ns have one bucket each; above that every power of two is split into 32 equal
+ * sub-buckets, so a recorded value is reported with a relative error of at most 1/32 (about 3%) whatever its
+ * magnitude. Values are tracked up to {@code 2^36} ns (about 68 s); longer values are counted in the last bucket.
+ * The whole histogram is about 8 KB, and {@link #record(long)} is a few arithmetic operations and one atomic
+ * increment, so it can sit on every DAO call.
+ * <p>
+ * Readers see a consistent-enough snapshot for monitoring: a percentile computed while values are being
+ * recorded may miss the most recent ones.
+ */
+
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final long MAX_TRACKABLE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one value.
+     *
+     * @param nanos the latency in nanoseconds; negative values are recorded as {@code 0}
+     */
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(Math.min(value, MAX_TRACKABLE)));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count
+     */
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean in nanoseconds, or {@code 0} if nothing was recorded
+     */
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Returns the largest recorded value, exactly.
+     *
+     * @return the maximum in nanoseconds
+     */
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value below which {@code percentile} percent of the recorded values fall, rounded up to the
+     * upper bound of its bucket and capped at {@link #getMax()}.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     * @return the value in nanoseconds, or {@code 0} if nothing was recorded
+     */
+
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears the histogram. Values recorded while the reset runs may be partly kept.
+     */
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Returns the bucket of a value in {@code [0, MAX_TRACKABLE]}.
+     */
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the largest value that falls into {@code bucket}.
+     */
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
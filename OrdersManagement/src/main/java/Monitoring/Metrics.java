@@ -0,0 +1,92 @@
+package Monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * {@code Metrics} is the registry of the application's runtime statistics and publishes them as JMX MBeans
+ * on the platform MBean server, under the {@value #DOMAIN} domain:
+ * <ul>
+ *     <li>{@code OrdersManagement:type=DaoOperation,entity=<Entity>,name=<operation>} for every data access
+ *     operation (see {@link OperationStatsMXBean});</li>
+ *     <li>{@code OrdersManagement:type=ConnectionPool} for the connection pool, including the time callers
+ *     wait to acquire a connection;</li>
+ *     <li>{@code OrdersManagement:type=BillLogWriter} for the background bill log writer: queue depth,
+ *     written and failed bills and flush latency;</li>
+ *     <li>{@code OrdersManagement:type=EntityCache,entity=<Entity>} and
+ *     {@code OrdersManagement:type=ProductCatalogCache} for the caches (see {@link CacheMXBean}).</li>
+ * </ul>
+ * They can be watched with JConsole or VisualVM, or scraped by any JMX exporter to graph p50/p99 per table.
+ */
+
+public final class Metrics {
+
+    /**
+     * JMX domain of every MBean registered by the application.
+     */
+    public static final String DOMAIN = "OrdersManagement";
+
+    private static final Logger LOGGER = Logger.getLogger(Metrics.class.getName());
+    private static final Map<String, OperationStats> OPERATIONS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the statistics of an operation on an entity, creating and registering them on first use.
+     *
+     * @param entity    the entity (table) name, e.g. {@code Client}; a plain identifier
+     * @param operation the operation name, e.g. {@code findAll}; a plain identifier
+     * @return the shared statistics
+     */
+
+    public static OperationStats operation(String entity, String operation) {
+        return OPERATIONS.computeIfAbsent(entity + '.' + operation, key -> {
+            OperationStats stats = new OperationStats(entity, operation);
+            register("type=DaoOperation,entity=" + entity + ",name=" + operation, stats);
+            return stats;
+        });
+    }
+
+    /**
+     * Returns the statistics of every operation used so far.
+     *
+     * @return a snapshot of the registered statistics
+     */
+
+    public static Collection<OperationStats> operations() {
+        List<OperationStats> all = new ArrayList<>(OPERATIONS.values());
+        all.sort((a, b) -> (a.getEntity() + '.' + a.getOperation()).compareTo(b.getEntity() + '.' + b.getOperation()));
+        return all;
+    }
+
+    /**
+     * Registers an MBean under {@code OrdersManagement:<properties>}, replacing a previous registration with
+     * the same name. Monitoring must never break the application, so failures are only logged.
+     *
+     * @param properties the key properties of the object name, e.g. {@code type=ConnectionPool}
+     * @param mbean      the MBean or MXBean implementation
+     */
+
+    public static void register(String properties, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (JMException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Metrics:register " + properties + " " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package Monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, error count, row count and latency histogram of one data access operation on one entity.
+ * Instances are obtained from {@link Metrics#operation(String, String)} and shared by every DAO instance
+ * of the entity. A call is timed from {@link #begin()}, which also starts its {@link SqlExecutionEvent}
+ * for Java Flight Recorder:
+ *
+ * <pre>{@code
+ * SqlExecutionEvent execution = stats.begin();
+ * try {
+ *     List<Client> rows = ...;
+ *     stats.success(execution, rows.size());
+ * } catch (SQLException e) {
+ *     stats.failure(execution);
+ * }
+ * }</pre>
+ */
+
+public final class OperationStats implements OperationStatsMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String entity;
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    OperationStats(String entity, String operation) {
+        this.entity = entity;
+        this.operation = operation;
+    }
+
+    /**
+     * Starts timing a call.
+     *
+     * @return the started event, to pass to {@link #success} or {@link #failure}
+     */
+
+    public SqlExecutionEvent begin() {
+        SqlExecutionEvent execution = new SqlExecutionEvent();
+        execution.startNanos = System.nanoTime();
+        execution.begin();
+        return execution;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param execution the event returned by {@link #begin()} when the call started
+     * @param rowCount  the number of rows returned or affected
+     */
+
+    public void success(SqlExecutionEvent execution, long rowCount) {
+        latency.record(System.nanoTime() - execution.startNanos);
+        rows.add(rowCount);
+        commit(execution, rowCount, false);
+    }
+
+    /**
+     * Records a call that failed with an exception.
+     *
+     * @param execution the event returned by {@link #begin()} when the call started
+     */
+
+    public void failure(SqlExecutionEvent execution) {
+        latency.record(System.nanoTime() - execution.startNanos);
+        errors.increment();
+        commit(execution, 0, true);
+    }
+
+    /**
+     * Ends the event and, if a recording wants it, fills it in and writes it.
+     */
+
+    private void commit(SqlExecutionEvent execution, long rowCount, boolean failed) {
+        execution.end();
+        if (execution.shouldCommit()) {
+            execution.entity = entity;
+            execution.operation = operation;
+            execution.rowCount = rowCount;
+            execution.failed = failed;
+            execution.commit();
+        }
+    }
+
+    /**
+     * Returns the latency histogram, in nanoseconds.
+     *
+     * @return the histogram
+     */
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getValueAtPercentile(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP90Millis() {
+        return latency.getValueAtPercentile(90) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getValueAtPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+        rows.reset();
+    }
+
+    /**
+     * Returns a one-line summary, for logging.
+     *
+     * @return the summary
+     */
+
+    @Override
+    public String toString() {
+        return String.format("%s.%s count=%d errors=%d rows=%d p50=%.3fms p99=%.3fms max=%.3fms",
+                entity, operation, getCount(), getErrorCount(), getRowCount(),
+                getP50Millis(), getP99Millis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,95 @@
+package Monitoring;
+
+/**
+ * JMX view of the statistics of one data access operation on one entity, e.g. {@code findAll} on
+ * {@code Client}. Latencies are in milliseconds and come from a {@link LatencyHistogram}.
+ */
+
+public interface OperationStatsMXBean {
+
+    /**
+     * Returns the entity (table) name.
+     *
+     * @return the entity
+     */
+
+    String getEntity();
+
+    /**
+     * Returns the operation name.
+     *
+     * @return the operation
+     */
+
+    String getOperation();
+
+    /**
+     * Returns the number of calls, successful or not.
+     *
+     * @return the call count
+     */
+
+    long getCount();
+
+    /**
+     * Returns the number of calls that failed with an exception.
+     *
+     * @return the error count
+     */
+
+    long getErrorCount();
+
+    /**
+     * Returns the number of rows returned or affected by the successful calls.
+     *
+     * @return the row count
+     */
+
+    long getRowCount();
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean in milliseconds
+     */
+
+    double getMeanMillis();
+
+    /**
+     * Returns the median latency.
+     *
+     * @return the 50th percentile in milliseconds
+     */
+
+    double getP50Millis();
+
+    /**
+     * Returns the 90th percentile latency.
+     *
+     * @return the 90th percentile in milliseconds
+     */
+
+    double getP90Millis();
+
+    /**
+     * Returns the 99th percentile latency.
+     *
+     * @return the 99th percentile in milliseconds
+     */
+
+    double getP99Millis();
+
+    /**
+     * Returns the largest latency.
+     *
+     * @return the maximum in milliseconds
+     */
+
+    double getMaxMillis();
+
+    /**
+     * Clears the counters and the histogram.
+     */
+
+    void reset();
+}
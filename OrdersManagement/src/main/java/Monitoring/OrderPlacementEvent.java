@@ -0,0 +1,90 @@
+package Monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event spanning the placement of one order, from validation to the queued bill.
+ * The {@link SqlExecutionEvent}s of the transaction are recorded on the same thread inside its time span,
+ * so GC pauses, lock contention and slow statements can be attributed to a specific order.
+ * <p>
+ * Typical use:
+ * <pre>{@code
+ * OrderPlacementEvent event = OrderPlacementEvent.begin(clientId, cart.size());
+ * try {
+ *     ...
+ *     event.placed(order.getId(), total);
+ * } finally {
+ *     event.finish();
+ * }
+ * }</pre>
+ */
+
+@Name("OrdersManagement.OrderPlacement")
+@Label("Order Placement")
+@Category("Orders Management")
+@Description("The placement of one order: stock reservation, order and line inserts, rollup and bill")
+public final class OrderPlacementEvent extends Event {
+
+    @Label("Client ID")
+    int clientId;
+
+    @Label("Order ID")
+    int orderId;
+
+    @Label("Line Count")
+    int lineCount;
+
+    @Label("Total")
+    double total;
+
+    @Label("Placed")
+    boolean placed;
+
+    private OrderPlacementEvent() {
+    }
+
+    /**
+     * Starts timing the placement of an order.
+     *
+     * @param clientId  the ID of the ordering client
+     * @param lineCount the number of cart lines
+     * @return the started event
+     */
+
+    public static OrderPlacementEvent begin(int clientId, int lineCount) {
+        OrderPlacementEvent event = new OrderPlacementEvent();
+        event.begin();
+        event.clientId = clientId;
+        event.lineCount = lineCount;
+        return event;
+    }
+
+    /**
+     * Marks the order as stored.
+     *
+     * @param orderId the generated order ID
+     * @param total   the order total
+     */
+
+    public void placed(int orderId, double total) {
+        this.orderId = orderId;
+        this.total = total;
+        this.placed = true;
+    }
+
+    /**
+     * Ends the event and writes it to the running recordings; an order that was not {@link #placed} is
+     * recorded as failed.
+     */
+
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package Monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for one data access operation: the statement(s) run by one DAO method call,
+ * with the entity, the operation and the rows returned or changed.
+ * <p>
+ * Events are created by {@link OperationStats#begin()} and committed by {@link OperationStats#success} or
+ * {@link OperationStats#failure}, so every instrumented DAO call emits one without further code. When no
+ * recording is running, {@code begin()}, {@code end()} and {@code shouldCommit()} reduce to a flag check and the
+ * fields are never filled in.
+ */
+
+@Name("OrdersManagement.SqlExecution")
+@Label("SQL Execution")
+@Category({"Orders Management", "Database"})
+@Description("A data access operation and the rows it returned or changed")
+public final class SqlExecutionEvent extends Event {
+
+    @Label("Entity")
+    String entity;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Row Count")
+    long rowCount;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * {@link System#nanoTime()} at the start of the call, for the latency histogram; not recorded.
+     */
+    transient long startNanos;
+
+    SqlExecutionEvent() {
+    }
+}
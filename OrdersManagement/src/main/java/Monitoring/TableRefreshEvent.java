@@ -0,0 +1,63 @@
+package Monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event spanning one refresh of a Swing table, from the request on the Event Dispatch
+ * Thread, through the background query, to the model update that shows the rows. It is committed on the
+ * Event Dispatch Thread; a refresh superseded by a newer one is never committed.
+ */
+
+@Name("OrdersManagement.TableRefresh")
+@Label("Table Refresh")
+@Category({"Orders Management", "Swing"})
+@Description("A table reload, page load or page index load, until its rows are shown")
+public final class TableRefreshEvent extends Event {
+
+    @Label("Table")
+    String table;
+
+    @Label("Kind")
+    @Description("reload, page, index or cart")
+    String kind;
+
+    @Label("Row Count")
+    int rowCount;
+
+    private TableRefreshEvent() {
+    }
+
+    /**
+     * Starts timing a refresh.
+     *
+     * @param table the displayed type, e.g. {@code Client}
+     * @param kind  what is refreshed: {@code reload}, {@code page}, {@code index} or {@code cart}
+     * @return the started event
+     */
+
+    public static TableRefreshEvent begin(String table, String kind) {
+        TableRefreshEvent event = new TableRefreshEvent();
+        event.begin();
+        event.table = table;
+        event.kind = kind;
+        return event;
+    }
+
+    /**
+     * Ends the event once the rows are shown and writes it to the running recordings.
+     *
+     * @param rowCount the number of rows loaded
+     */
+
+    public void finish(int rowCount) {
+        end();
+        if (shouldCommit()) {
+            this.rowCount = rowCount;
+            commit();
+        }
+    }
+}
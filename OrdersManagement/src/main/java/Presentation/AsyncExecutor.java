@@ -0,0 +1,165 @@
+package Presentation;
+
+import javax.swing.*;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * AsyncExecutor runs database work off the Swing Event Dispatch Thread (EDT).
+ * <p>
+ * Tasks run on virtual threads when the JDK provides them (Java 21+), otherwise on a cached pool of
+ * daemon threads. Their result or error is handed back to the EDT with {@link SwingUtilities#invokeLater},
+ * so callbacks may update Swing components directly. While a task runs, the given {@link BusyIndicator}
+ * shows progress.
+ * <p>
+ * Refreshes are started with {@link #runLatest}: a newer refresh with the same key cancels the older one.
+ * A cancelled refresh that has not started is never run, and the result of one that is already running is discarded.
+ * */
+
+public final class AsyncExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncExecutor.class.getName());
+    private static final AsyncExecutor shared = new AsyncExecutor();
+
+    private final ExecutorService executor = createExecutor();
+    private final Map<Object, Task<?>> latest = new ConcurrentHashMap<>();
+
+    private AsyncExecutor() {
+    }
+
+    /**
+     * Returns the executor shared by all panels.
+     *
+     * @return the shared executor
+     * */
+
+    public static AsyncExecutor shared() {
+        return shared;
+    }
+
+    /**
+     * Runs {@code work} in the background and passes its result to {@code onSuccess} on the EDT.
+     *
+     * @param busy      the indicator shown while the task runs
+     * @param work      the work to run, typically BLL calls
+     * @param onSuccess receives the result on the EDT
+     * @param onError   receives the exception thrown by {@code work} on the EDT
+     * @param <T>       the result type
+     * */
+
+    public <T> void run(BusyIndicator busy, Callable<T> work, Consumer<? super T> onSuccess,
+                        Consumer<? super Exception> onError) {
+        new Task<>(null, busy, work, onSuccess, onError).start();
+    }
+
+    /**
+     * Runs {@code work} in the background like {@link #run}, cancelling any task still pending or running
+     * under the same {@code key}. Only the result of the newest task is published.
+     *
+     * @param key       identifies the refresh, e.g. the table it fills
+     * @param busy      the indicator shown while the task runs
+     * @param work      the work to run, typically BLL calls
+     * @param onSuccess receives the result on the EDT
+     * @param onError   receives the exception thrown by {@code work} on the EDT
+     * @param <T>       the result type
+     * */
+
+    public <T> void runLatest(Object key, BusyIndicator busy, Callable<T> work, Consumer<? super T> onSuccess,
+                              Consumer<? super Exception> onError) {
+        Task<T> task = new Task<>(key, busy, work, onSuccess, onError);
+        Task<?> previous = latest.put(key, task);
+        if (previous != null) {
+            previous.cancel();
+        }
+        task.start();
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor if the running JDK has one, otherwise a cached pool
+     * of daemon threads. The lookup is reflective so the code still compiles for Java 17.
+     * */
+
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "db-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * One submitted task together with its callbacks.
+     * */
+
+    private final class Task<T> {
+        private final Object key;
+        private final BusyIndicator busy;
+        private final Callable<T> work;
+        private final Consumer<? super T> onSuccess;
+        private final Consumer<? super Exception> onError;
+        private volatile boolean cancelled;
+        private Future<?> future;
+
+        private Task(Object key, BusyIndicator busy, Callable<T> work, Consumer<? super T> onSuccess,
+                     Consumer<? super Exception> onError) {
+            this.key = key;
+            this.busy = busy;
+            this.work = work;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+
+        private synchronized void start() {
+            busy.start();
+            future = executor.submit(this::execute);
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (future != null && future.cancel(false)) {
+                busy.stop();
+            }
+        }
+
+        private void execute() {
+            if (cancelled) {
+                SwingUtilities.invokeLater(busy::stop);
+                return;
+            }
+            try {
+                T result = work.call();
+                SwingUtilities.invokeLater(() -> finish(() -> onSuccess.accept(result)));
+            } catch (Exception e) {
+                SwingUtilities.invokeLater(() -> finish(() -> onError.accept(e)));
+            }
+        }
+
+        private void finish(Runnable callback) {
+            busy.stop();
+            if (key != null) {
+                latest.remove(key, this);
+            }
+            if (cancelled) {
+                return;
+            }
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "AsyncExecutor:callback " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package Presentation;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * BusyIndicator is an indeterminate progress bar that is visible while at least one background task
+ * of its panel is running. It also switches the panel to the wait cursor meanwhile.
+ * <p>
+ * {@link #start()} and {@link #stop()} may be called from any thread; they always update the UI on the EDT.
+ * */
+
+public class BusyIndicator extends JProgressBar {
+    private final Component owner;
+    private int running;
+
+    /**
+     * Constructs a hidden indicator for the given panel.
+     *
+     * @param owner the component that shows the wait cursor while busy
+     * */
+
+    public BusyIndicator(Component owner) {
+        this.owner = owner;
+        setIndeterminate(true);
+        setVisible(false);
+    }
+
+    /**
+     * Marks the start of a background task.
+     * */
+
+    public void start() {
+        onEdt(() -> {
+            if (running++ == 0) {
+                setVisible(true);
+                owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            }
+        });
+    }
+
+    /**
+     * Marks the end of a background task.
+     * */
+
+    public void stop() {
+        onEdt(() -> {
+            if (running > 0 && --running == 0) {
+                setVisible(false);
+                owner.setCursor(Cursor.getDefaultCursor());
+            }
+        });
+    }
+
+    private static void onEdt(Runnable action) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            action.run();
+        } else {
+            SwingUtilities.invokeLater(action);
+        }
+    }
+}
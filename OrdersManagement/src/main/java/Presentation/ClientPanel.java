@@ -2,10 +2,12 @@ package Presentation;
 
 import BusinessLogicLayer.ClientBLL;
 import Model.Client;
+import Monitoring.TableRefreshEvent;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * ClientPanel is a custom JPanel that provides a graphical interface to view
@@ -15,11 +17,17 @@ import java.util.List;
 
 
 public class ClientPanel extends JPanel {
+
+    private static final Logger LOGGER = Logger.getLogger(ClientPanel.class.getName());
+
     private JTable table;
     private final JButton addBtn = new JButton("Add");
     private final JButton editBtn = new JButton("Edit");
     private final JButton deleteBtn = new JButton("Delete");
     private final JButton refreshBtn = new JButton("Refresh");
+    private final BusyIndicator busy = new BusyIndicator(this);
+    private final AsyncExecutor async = AsyncExecutor.shared();
+    private final EntityTableModel<Client> clientModel = new EntityTableModel<>(Client.class, Client::getId);
 
     /**
      * Constructor that sets up the layout and initializes UI components.
@@ -34,15 +42,17 @@ public class ClientPanel extends JPanel {
         topPanel.add(editBtn);
         topPanel.add(deleteBtn);
         topPanel.add(refreshBtn);
+        topPanel.add(busy);
 
-        table = new JTable();
+        table = new JTable(clientModel);
         add(topPanel, BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
     }
 
     /**
      * Attaches event listeners to the buttons to handle user interactions,
-     * using the operations defined in ClientBLL.
+     * using the operations defined in ClientBLL. The database calls run in the background
+     * through the {@link AsyncExecutor}.
      * @param clientBLL instance of ClientBLL used for CRUD operations
      * */
 
@@ -74,8 +84,7 @@ public class ClientPanel extends JPanel {
                     }
 
                     Client c = new Client(name.getText(), address.getText(), email.getText(), phone.getText());
-                    clientBLL.insertClient(c);
-                    refreshTable(clientBLL);
+                    async.run(busy, () -> clientBLL.insertClient(c), clientModel::apply, this::showError);
                 } catch (Exception ex) {
                     JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
                 }
@@ -110,8 +119,7 @@ public class ClientPanel extends JPanel {
                             return;
                         }
                         Client updated = new Client(id, name.getText(), address.getText(), email.getText(), phone.getText());
-                        clientBLL.updateClient(updated);
-                        refreshTable(clientBLL);
+                        async.run(busy, () -> clientBLL.updateClient(updated), clientModel::apply, this::showError);
                     } catch (Exception ex) {
                         JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
                     }
@@ -123,8 +131,7 @@ public class ClientPanel extends JPanel {
             int row = table.getSelectedRow();
             if (row >= 0) {
                 int id = (int) table.getValueAt(row, 0);
-                clientBLL.deleteClient(id);
-                refreshTable(clientBLL);
+                async.run(busy, () -> clientBLL.deleteClient(id), clientModel::apply, this::showError);
             }
         });
 
@@ -133,15 +140,35 @@ public class ClientPanel extends JPanel {
 
     /**
      * Updates the table with current data from the database.
+     * The query runs in the background; a newer refresh cancels one still in progress.
      * @param clientBLL instance of ClientBLL used to retrieve data
      * */
 
     private void refreshTable(ClientBLL clientBLL) {
-        try {
-            List<Client> clients = clientBLL.findAllClients();
-            table.setModel(TableGenerator.generateTable(clients, Client.class).getModel());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        TableRefreshEvent event = TableRefreshEvent.begin("Client", "reload");
+        async.runLatest(this, busy, clientBLL::findAllClients, rows -> {
+                    clientModel.setRows(rows);
+                    event.finish(rows.size());
+                },
+                this::showLoadError);
+    }
+
+    /**
+     * Shows the error of a failed background operation.
+     * @param e the exception thrown by the operation
+     * */
+
+    private void showError(Exception e) {
+        JOptionPane.showMessageDialog(this, "Error: " + e.getMessage());
+    }
+
+    /**
+     * Logs and shows the error of a failed background load, which would otherwise leave the table empty.
+     * @param e the exception thrown by the load
+     * */
+
+    private void showLoadError(Exception e) {
+        LOGGER.log(Level.WARNING, "ClientPanel:load " + e.getMessage(), e);
+        JOptionPane.showMessageDialog(this, "Error loading clients: " + e.getMessage());
     }
 }
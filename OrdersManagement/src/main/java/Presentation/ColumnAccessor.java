@@ -0,0 +1,239 @@
+package Presentation;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * ColumnAccessor describes the table columns of a model class and reads their values without reflection.
+ * <p>
+ * The columns are resolved once per class and cached:
+ * <ul>
+ *     <li>for a record, one column per record component, read through its accessor method;</li>
+ *     <li>for a bean, one column per non-static field, read through its public getter ({@code getX} or
+ *     {@code isX}) if there is one and through the field otherwise, followed by the derived getters that
+ *     have no field behind them (such as {@code OrderItemView.getTotalPrice}), ordered by name.</li>
+ * </ul>
+ * Every getter is linked into a {@link Function} with {@link LambdaMetafactory}, so reading a cell is a plain
+ * interface call. A class whose columns cannot be accessed fails when its accessor is built, not per cell.
+ *
+ * @param <T> the model class
+ * */
+
+public final class ColumnAccessor<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<ColumnAccessor<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected ColumnAccessor<?> computeValue(Class<?> type) {
+            return new ColumnAccessor<>(type);
+        }
+    };
+
+    private final String[] names;
+    private final Class<?>[] types;
+    private final Function<Object, Object>[] getters;
+
+    @SuppressWarnings("unchecked")
+    private ColumnAccessor(Class<T> type) {
+        List<String> columnNames = new ArrayList<>();
+        List<Class<?>> columnTypes = new ArrayList<>();
+        List<Function<Object, Object>> columnGetters = new ArrayList<>();
+
+        try {
+            if (type.isRecord()) {
+                for (RecordComponent component : type.getRecordComponents()) {
+                    columnNames.add(component.getName());
+                    columnTypes.add(component.getType());
+                    columnGetters.add(getter(type, LOOKUP.unreflect(component.getAccessor())));
+                }
+            } else {
+                Set<String> fieldNames = new HashSet<>();
+                for (Field field : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    fieldNames.add(field.getName());
+                    Method getter = findGetter(type, field.getName());
+                    columnNames.add(field.getName());
+                    columnTypes.add(field.getType());
+                    columnGetters.add(getter != null
+                            ? getter(type, LOOKUP.unreflect(getter))
+                            : getter(type, MethodHandles.privateLookupIn(type, LOOKUP).unreflectGetter(field)));
+                }
+                for (Method method : derivedGetters(type, fieldNames)) {
+                    columnNames.add(propertyName(method));
+                    columnTypes.add(method.getReturnType());
+                    columnGetters.add(getter(type, LOOKUP.unreflect(method)));
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access the columns of " + type.getName(), e);
+        }
+
+        this.names = columnNames.toArray(new String[0]);
+        this.types = columnTypes.stream().map(c -> MethodType.methodType(c).wrap().returnType()).toArray(Class<?>[]::new);
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Function<Object, Object>[] accessors = columnGetters.toArray(new Function[0]);
+        this.getters = accessors;
+    }
+
+    /**
+     * Returns the cached accessor of a class, building it on first use.
+     *
+     * @param type the model class
+     * @param <T>  the model type
+     * @return the column accessor
+     * */
+
+    @SuppressWarnings("unchecked")
+    public static <T> ColumnAccessor<T> of(Class<T> type) {
+        return (ColumnAccessor<T>) CACHE.get(type);
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the column count
+     * */
+
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    /**
+     * Returns the names of all columns, in column order.
+     *
+     * @return a copy of the column names
+     * */
+
+    public String[] getColumnNames() {
+        return names.clone();
+    }
+
+    /**
+     * Returns the name of a column: the field, record component or property name.
+     *
+     * @param column the column index
+     * @return the column name
+     * */
+
+    public String getColumnName(int column) {
+        return names[column];
+    }
+
+    /**
+     * Returns the type of a column's values, with primitive types boxed.
+     *
+     * @param column the column index
+     * @return the column class
+     * */
+
+    public Class<?> getColumnClass(int column) {
+        return types[column];
+    }
+
+    /**
+     * Reads the value of one column of a row object.
+     *
+     * @param row    the row object
+     * @param column the column index
+     * @return the value, with primitives boxed
+     * */
+
+    public Object getValue(T row, int column) {
+        return getters[column].apply(row);
+    }
+
+    /**
+     * Finds the public no-arg getter of a field, or {@code null} if there is none.
+     * */
+
+    private static Method findGetter(Class<?> type, String fieldName) {
+        String suffix = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (String name : new String[]{"get" + suffix, "is" + suffix}) {
+            try {
+                Method method = type.getMethod(name);
+                if (method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers())) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // try the next naming convention
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the public getters declared by {@code type} that do not belong to a field, ordered by name.
+     * */
+
+    private static List<Method> derivedGetters(Class<?> type, Set<String> fieldNames) {
+        List<Method> derived = new ArrayList<>();
+        for (Method method : type.getDeclaredMethods()) {
+            int modifiers = method.getModifiers();
+            if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || method.isSynthetic()
+                    || method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+                continue;
+            }
+            String property = propertyName(method);
+            if (property != null && !fieldNames.contains(property)) {
+                derived.add(method);
+            }
+        }
+        derived.sort(Comparator.comparing(Method::getName));
+        return derived;
+    }
+
+    /**
+     * Returns the property name of a getter ({@code getTotalPrice} gives {@code totalPrice}),
+     * or {@code null} if the method is not named like a getter.
+     * */
+
+    private static String propertyName(Method method) {
+        String name = method.getName();
+        int prefix = name.startsWith("get") ? 3
+                : name.startsWith("is") && method.getReturnType() == boolean.class ? 2 : 0;
+        if (prefix == 0 || name.length() == prefix) {
+            return null;
+        }
+        return Character.toLowerCase(name.charAt(prefix)) + name.substring(prefix + 1);
+    }
+
+    /**
+     * Links a getter handle into a {@link Function}; falls back to invoking the handle if
+     * {@link LambdaMetafactory} cannot link it (for example a private field getter).
+     * */
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Class<?> type, MethodHandle handle) {
+        Class<?> boxed = handle.type().wrap().returnType();
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle, MethodType.methodType(boxed, type));
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return row -> {
+                try {
+                    return generic.invokeExact(row);
+                } catch (Throwable t) {
+                    throw new IllegalStateException("Cannot read a column of " + type.getName(), t);
+                }
+            };
+        }
+    }
+}
@@ -4,6 +4,7 @@ import BusinessLogicLayer.ClientBLL;
 import BusinessLogicLayer.ProductBLL;
 import BusinessLogicLayer.OrderBLL;
 import BusinessLogicLayer.OrderItemBLL;
+import BusinessLogicLayer.OrderPlacementService;
 
 
 /**
@@ -22,6 +23,7 @@ public class Controller {
     private final ProductBLL productBLL;
     private final OrderBLL orderBLL;
     private final OrderItemBLL orderItemBLL;
+    private final OrderPlacementService orderPlacementService;
 
     /**
      * Constructs a Controller object and initializes the BLL layers and user interface listeners.
@@ -37,6 +39,7 @@ public class Controller {
         productBLL = new ProductBLL();
         orderBLL = new OrderBLL();
         orderItemBLL = new OrderItemBLL();
+        orderPlacementService = new OrderPlacementService();
 
         initClientPanel();
         initProductPanel();
@@ -62,10 +65,10 @@ public class Controller {
 
     /**
      * Initializes event listeners for the Order panel using multiple BLL classes
-     * including ClientBLL, ProductBLL, OrderBLL, and OrderItemBLL.
+     * including ClientBLL, ProductBLL, OrderBLL, OrderItemBLL and the OrderPlacementService.
      */
 
     private void initOrderPanel() {
-        view.getOrderPanel().setListeners(clientBLL, productBLL, orderBLL, orderItemBLL);
+        view.getOrderPanel().setListeners(clientBLL, productBLL, orderBLL, orderItemBLL, orderPlacementService);
     }
 }
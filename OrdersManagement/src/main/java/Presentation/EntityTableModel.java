@@ -0,0 +1,128 @@
+package Presentation;
+
+import BusinessLogicLayer.EntityChange;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * EntityTableModel is a list-backed table model for entities with an {@code int} ID.
+ * <p>
+ * A full load replaces the rows with {@link #setRows(List)}. After a write, the {@link EntityChange}
+ * returned by the BLL is applied with {@link #apply(EntityChange)}, which touches only the affected row and
+ * fires the matching row-level event, so the {@link javax.swing.JTable} keeps its selection and scroll position.
+ * Rows are located through an ID index. Cells are read through the class's cached {@link ColumnAccessor}.
+ * <p>
+ * All methods must be called on the Event Dispatch Thread.
+ *
+ * @param <T> the entity type
+ * */
+
+public class EntityTableModel<T> extends AbstractTableModel {
+    private final ColumnAccessor<T> columns;
+    private final ToIntFunction<T> idOf;
+    private final List<T> rows = new ArrayList<>();
+    private final Map<Integer, Integer> rowById = new HashMap<>();
+
+    /**
+     * Constructs an empty model.
+     *
+     * @param clazz the entity class
+     * @param idOf  extracts the ID of an entity
+     * */
+
+    public EntityTableModel(Class<T> clazz, ToIntFunction<T> idOf) {
+        this.columns = ColumnAccessor.of(clazz);
+        this.idOf = idOf;
+    }
+
+    /**
+     * Replaces all rows.
+     *
+     * @param entities the new rows
+     * */
+
+    public void setRows(List<T> entities) {
+        rows.clear();
+        rowById.clear();
+        for (T entity : entities) {
+            rowById.put(idOf.applyAsInt(entity), rows.size());
+            rows.add(entity);
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Applies one write to the table: appends an inserted entity, replaces an updated one
+     * and removes a deleted one. An update of an entity that is not shown yet is treated as an insertion.
+     *
+     * @param change the change returned by the BLL
+     * */
+
+    public void apply(EntityChange<T> change) {
+        Integer row = rowById.get(change.id());
+        switch (change.type()) {
+            case INSERTED, UPDATED -> {
+                if (row != null) {
+                    rows.set(row, change.entity());
+                    fireTableRowsUpdated(row, row);
+                } else {
+                    int inserted = rows.size();
+                    rowById.put(change.id(), inserted);
+                    rows.add(change.entity());
+                    fireTableRowsInserted(inserted, inserted);
+                }
+            }
+            case DELETED -> {
+                if (row != null) {
+                    rows.remove((int) row);
+                    rowById.remove(change.id());
+                    for (int i = row; i < rows.size(); i++) {
+                        rowById.put(idOf.applyAsInt(rows.get(i)), i);
+                    }
+                    fireTableRowsDeleted(row, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the entity shown in a row.
+     *
+     * @param row the row index
+     * @return the entity
+     * */
+
+    public T getRow(int row) {
+        return rows.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.getColumnName(column);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns.getColumnClass(column);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return columns.getValue(rows.get(row), column);
+    }
+}
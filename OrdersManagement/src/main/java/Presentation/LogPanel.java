@@ -1,26 +1,43 @@
 package Presentation;
 
+import BusinessLogicLayer.ExportBLL;
 import DataAccessLayer.LogDAO;
+import Export.ExportFormat;
 import Model.Bill;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
+import java.io.File;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 
 /**
  * The LogPanel class represents the UI panel that displays a log of all generated bills (orders).
  * <p>
- * It contains a table to show bill details and a button to refresh the list by querying the database.
+ * It contains a table to show bill details, a button to refresh the list by querying the database
+ * and a button to export the bill log or the order history to a file.
  * */
 
 public class LogPanel extends JPanel {
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_PAGES = 20;
+
     private final JTable billTable = new JTable();
     private final JButton refreshBtn = new JButton("Refresh");
+    private final JButton exportBtn = new JButton("Export...");
+    private final BusyIndicator busy = new BusyIndicator(this);
+    private final LogDAO logDAO = new LogDAO();
+    private final PagedTableModel<Bill> billModel = new PagedTableModel<>(Bill.class, PAGE_SIZE, MAX_PAGES,
+            logDAO::findBillPageIndex, (afterId, limit) -> logDAO.findBillPage(afterId, limit).items(), busy,
+            e -> JOptionPane.showMessageDialog(this, "Error loading bills: " + e.getMessage()));
+    private final ExportBLL exportBLL = new ExportBLL();
 
     /**
      * Constructs the LopPanel and initializes the layout and components.
      * <p>
-     *     Automatically loads the bill data on creation and sets up the refresh button listener.
+     *     Starts loading the bill data in the background on creation and sets up the refresh button listener.
      * */
 
     public LogPanel() {
@@ -28,27 +45,104 @@ public class LogPanel extends JPanel {
 
         JPanel topPanel = new JPanel();
         topPanel.add(refreshBtn);
+        topPanel.add(exportBtn);
+        topPanel.add(busy);
 
         add(topPanel, BorderLayout.NORTH);
+        billTable.setModel(billModel);
         add(new JScrollPane(billTable), BorderLayout.CENTER);
 
         refreshBtn.addActionListener(e -> refreshTable());
+        exportBtn.addActionListener(e -> exportData());
         refreshTable();
     }
 
     /**
-     * Refreshes the table by retrieving all bills from the database and updating the table model.
+     * Refreshes the table by reloading the bill log.
      * <p>
-     *     Displays an error message if data loading fails.
+     *     The table is backed by a {@link PagedTableModel}: the first page is shown as soon as it arrives
+     *     and the other pages are fetched in the background as the table scrolls, so the panel can be built
+     *     and shown before the data arrives, whatever the size of the log.
      * */
 
     private void refreshTable() {
+        billModel.reload();
+    }
+
+    /**
+     * Asks for the data set, file format and optional order date range, then for the target file,
+     * and runs the export in the background.
+     * <p>
+     *     Rows are streamed from the database straight to the file, so the export does not depend on
+     *     the pages loaded in the table and works for logs of any size.
+     * */
+
+    private void exportData() {
+        JComboBox<String> dataSet = new JComboBox<>(new String[]{"Bill log", "Order history"});
+        JComboBox<ExportFormat> format = new JComboBox<>(ExportFormat.values());
+        JCheckBox gzip = new JCheckBox("Compress (gzip)");
+        JTextField from = new JTextField();
+        JTextField to = new JTextField();
+        Object[] fields = {
+                "Data:", dataSet,
+                "Format:", format,
+                gzip,
+                "From (yyyy-MM-dd, optional):", from,
+                "To (yyyy-MM-dd, exclusive, optional):", to
+        };
+
+        int result = JOptionPane.showConfirmDialog(this, fields, "Export", JOptionPane.OK_CANCEL_OPTION);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        Date fromDate;
+        Date toDate;
         try {
-            LogDAO logDAO = new LogDAO();
-            List<Bill> bills = logDAO.findAllBills();
-            billTable.setModel(TableGenerator.generateTable(bills, Bill.class).getModel());
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error loading bills: " + e.getMessage());
+            fromDate = parseDate(from.getText());
+            toDate = parseDate(to.getText());
+        } catch (ParseException ex) {
+            JOptionPane.showMessageDialog(this, "Dates must be written as yyyy-MM-dd.");
+            return;
+        }
+
+        boolean bills = dataSet.getSelectedIndex() == 0;
+        ExportFormat selectedFormat = (ExportFormat) format.getSelectedItem();
+        boolean compress = gzip.isSelected();
+        String extension = selectedFormat.getExtension() + (compress ? ".gz" : "");
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File((bills ? "bills" : "order-history") + extension));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path path = chooser.getSelectedFile().toPath();
+
+        exportBtn.setEnabled(false);
+        AsyncExecutor.shared().run(busy,
+                () -> bills
+                        ? exportBLL.exportBills(path, selectedFormat, compress, fromDate, toDate)
+                        : exportBLL.exportOrderHistory(path, selectedFormat, compress, fromDate, toDate),
+                count -> {
+                    exportBtn.setEnabled(true);
+                    JOptionPane.showMessageDialog(this, "Exported " + count + " rows to " + path);
+                },
+                ex -> {
+                    exportBtn.setEnabled(true);
+                    JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
+                });
+    }
+
+    /**
+     * Parses an optional {@code yyyy-MM-dd} date; a blank text means no bound.
+     * */
+
+    private static Date parseDate(String text) throws ParseException {
+        if (text.isBlank()) {
+            return null;
         }
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setLenient(false);
+        return dateFormat.parse(text.trim());
     }
 }
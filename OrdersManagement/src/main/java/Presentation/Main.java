@@ -1,5 +1,7 @@
 package Presentation;
 
+import javax.swing.*;
+
 /**
  * Entry point of the Orders Management application.
  * <p>
@@ -11,10 +13,13 @@ public class  Main {
 
     /**
      * The main method that starts the application.
+     * The user interface is built on the Event Dispatch Thread; data is then loaded in the background.
      * */
 
     public static void main(String[] args) {
-        View view = new View();
-        new Controller(view);
+        SwingUtilities.invokeLater(() -> {
+            View view = new View();
+            new Controller(view);
+        });
     }
 }
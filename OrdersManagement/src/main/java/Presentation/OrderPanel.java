@@ -1,14 +1,16 @@
 package Presentation;
 
 import BusinessLogicLayer.*;
-import DataAccessLayer.LogDAO;
 import Model.*;
+import Monitoring.TableRefreshEvent;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * The OrderPanel class provides a user interface for managing product orders.
@@ -18,6 +20,12 @@ import java.util.List;
  * */
 
 public class OrderPanel extends JPanel {
+
+    private static final Logger LOGGER = Logger.getLogger(OrderPanel.class.getName());
+
+    private static final int HISTORY_PAGE_SIZE = 200;
+    private static final int HISTORY_MAX_PAGES = 20;
+
     private final JComboBox<Client> clientBox = new JComboBox<>();
     private final JComboBox<Product> productBox = new JComboBox<>();
     private final JTextField quantityField = new JTextField();
@@ -27,13 +35,17 @@ public class OrderPanel extends JPanel {
     private final JButton deleteBtn = new JButton("Delete Order");
     private JTable orderTable = new JTable();
     private JTable cartTable = new JTable();
+    private final BusyIndicator busy = new BusyIndicator(this);
+    private final AsyncExecutor async = AsyncExecutor.shared();
 
     private ClientBLL clientBLL;
     private ProductBLL productBLL;
     private OrderBLL orderBLL;
     private OrderItemBLL itemBLL;
+    private OrderPlacementService placementService;
 
     private final List<OrderItem> cart = new ArrayList<>();
+    private PagedTableModel<OrderItemView> historyModel;
 
     /**
      * Constructs the order panel with UI components for order creation and management.
@@ -42,7 +54,7 @@ public class OrderPanel extends JPanel {
     public OrderPanel() {
         setLayout(new BorderLayout());
 
-        JPanel formPanel = new JPanel(new GridLayout(6, 2));
+        JPanel formPanel = new JPanel(new GridLayout(7, 2));
         formPanel.add(new JLabel("Client:")); formPanel.add(clientBox);
         formPanel.add(new JLabel("Product:")); formPanel.add(productBox);
         formPanel.add(new JLabel("Quantity:")); formPanel.add(quantityField);
@@ -50,6 +62,7 @@ public class OrderPanel extends JPanel {
         formPanel.add(finalizeOrderBtn);
         formPanel.add(refreshBtn);
         formPanel.add(deleteBtn);
+        formPanel.add(busy);
 
         JPanel centerPanel = new JPanel(new GridLayout(2, 1));
         JScrollPane cartScrollPane = new JScrollPane(cartTable);
@@ -66,28 +79,36 @@ public class OrderPanel extends JPanel {
 
     /**
      * Initializes the business logic layers and sets up event listeners for UI buttons.
+     * The database calls run in the background through the {@link AsyncExecutor}.
      *
      * @param clientBLL   logic layer for clients
      * @param productBLL  logic layer for products
      * @param orderBLL    logic layer for orders
      * @param itemBLL     logic layer for order items
+     * @param placementService service that places an order in a single transaction
      */
 
-    public void setListeners(ClientBLL clientBLL, ProductBLL productBLL, OrderBLL orderBLL, OrderItemBLL itemBLL) {
+    public void setListeners(ClientBLL clientBLL, ProductBLL productBLL, OrderBLL orderBLL, OrderItemBLL itemBLL,
+                             OrderPlacementService placementService) {
         this.clientBLL = clientBLL;
         this.productBLL = productBLL;
         this.orderBLL = orderBLL;
         this.itemBLL = itemBLL;
+        this.placementService = placementService;
+        this.historyModel = new PagedTableModel<>(OrderItemView.class, HISTORY_PAGE_SIZE, HISTORY_MAX_PAGES,
+                itemBLL::findOrderItemViewPageIndex, itemBLL::findOrderItemViewPage, busy,
+                e -> JOptionPane.showMessageDialog(this, "Error loading the order history: " + e.getMessage()));
+        orderTable.setModel(historyModel);
 
-        try {
+        async.runLatest(clientBox, busy, clientBLL::findAllClients, clients -> {
             clientBox.removeAllItems();
-            clientBLL.findAllClients().forEach(clientBox::addItem);
+            clients.forEach(clientBox::addItem);
+        }, e -> showLoadError("clients", e));
 
+        async.runLatest(productBox, busy, productBLL::findAllProducts, products -> {
             productBox.removeAllItems();
-            productBLL.findAllProducts().forEach(productBox::addItem);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+            products.forEach(productBox::addItem);
+        }, e -> showLoadError("products", e));
 
         refreshBtn.addActionListener(e -> refreshOrders());
 
@@ -117,66 +138,45 @@ public class OrderPanel extends JPanel {
                 return;
             }
 
-            try {
-                Client client = (Client) clientBox.getSelectedItem();
-
-                double total = cart.stream()
-                        .mapToDouble(item -> item.getPrice() * item.getQuantity())
-                        .sum();
-
-                Orders order = new Orders(client.getId(), new Date(), total);
-                order = orderBLL.insertOrder(order);
-
-                for (OrderItem item : cart) {
-                    item.setOrderId(order.getId());
-                    itemBLL.insertOrderItem(item);
-
-                    Product product = productBLL.findProductById(item.getProductId());
-                    product.setStock(product.getStock() - item.getQuantity());
-                    productBLL.updateProduct(product);
-                }
-
-                order.setItems(new ArrayList<>(cart));
-
-                Bill bill = new Bill(
-                        0,
-                        order.getId(),
-                        client.getId(),
-                        client.getName(),
-                        order.getOrderData(),
-                        total
-                );
-                new LogDAO().insertBill(bill);
+            Client client = (Client) clientBox.getSelectedItem();
+            if (client == null) {
+                JOptionPane.showMessageDialog(this, "Please select a client.");
+                return;
+            }
 
+            List<OrderItem> items = new ArrayList<>(cart);
+            finalizeOrderBtn.setEnabled(false);
+            async.run(busy, () -> placementService.placeOrder(client.getId(), items), order -> {
+                finalizeOrderBtn.setEnabled(true);
                 cart.clear();
                 refreshCart();
                 JOptionPane.showMessageDialog(this, "Order placed!");
-                refreshOrders();
-            } catch (Exception ex) {
+                historyModel.reload();
+            }, ex -> {
+                finalizeOrderBtn.setEnabled(true);
                 JOptionPane.showMessageDialog(this, "Error placing order: " + ex.getMessage());
                 ex.printStackTrace();
-            }
+            });
         });
 
         deleteBtn.addActionListener(e -> {
             int row = orderTable.getSelectedRow();
-            if (row >= 0) {
-                int orderId = (int) orderTable.getValueAt(row, 0);
+            OrderItemView selected = row >= 0 ? historyModel.getRow(row) : null;
+            if (selected != null) {
+                int orderId = selected.getOrderId();
 
                 int confirm = JOptionPane.showConfirmDialog(this,
                         "Are you sure you want to delete order #" + orderId + "?",
                         "Confirm Delete", JOptionPane.YES_NO_OPTION);
 
                 if (confirm == JOptionPane.YES_OPTION) {
-                    try {
-                        itemBLL.deleteOrderItem(orderId);
-                        orderBLL.deleteOrder(orderId);
+                    async.run(busy, () -> orderBLL.deleteOrder(orderId), deleted -> {
                         JOptionPane.showMessageDialog(this, "Order deleted!");
                         refreshOrders();
-                    } catch (Exception ex) {
+                    }, ex -> {
                         JOptionPane.showMessageDialog(this, "Error deleting order: " + ex.getMessage());
                         ex.printStackTrace();
-                    }
+                    });
                 }
             } else {
                 JOptionPane.showMessageDialog(this, "Please select an order to delete.");
@@ -188,48 +188,31 @@ public class OrderPanel extends JPanel {
 
     /**
      * Updates the order history table with all existing orders and their items.
+     * The history is paged: only the rows scrolled into view are fetched, in the background,
+     * and the scroll position is kept across refreshes.
+     * <p>
+     *     The page index is rebuilt, since order items may have been deleted meanwhile, e.g. by deleting a
+     *     client or a product; after an order is placed the history only grows and is extended instead.
      * */
 
     private void refreshOrders() {
-        try {
-            List<OrderItem> items = itemBLL.findAllOrderItems();
-            List<Product> products = productBLL.findAllProducts();
-
-            List<OrderItemView> itemViews = items.stream().map(item -> {
-                String productName = products.stream()
-                        .filter(p -> p.getId() == item.getProductId())
-                        .map(Product::getName)
-                        .findFirst()
-                        .orElse("Unknown");
-
-                return new OrderItemView(
-                        item.getOrderId(),
-                        productName,
-                        item.getQuantity(),
-                        item.getPrice()
-                );
-            }).toList();
-
-            orderTable.setModel(TableGenerator.generateTable(itemViews, OrderItemView.class).getModel());
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        historyModel.rebuild();
     }
 
     /**
      * Updates the cart table based on the current contests of the cartt.
+     * Product names are looked up in the background from a copy of the cart.
      * */
 
     private void refreshCart() {
-        try {
-            List<Product> products = productBLL.findAllProducts();
-            List<OrderItemView> itemViews = cart.stream().map(item -> {
-                String productName = products.stream()
-                        .filter(p -> p.getId() == item.getProductId())
-                        .map(Product::getName)
-                        .findFirst()
-                        .orElse("Unknown");
+        List<OrderItem> items = new ArrayList<>(cart);
+        TableRefreshEvent event = TableRefreshEvent.begin("OrderItemView", "cart");
+        async.runLatest(cartTable, busy, () -> {
+            Map<Integer, Product> products = productBLL.findProductsByIds(
+                    items.stream().map(OrderItem::getProductId).toList());
+            return items.stream().map(item -> {
+                Product product = products.get(item.getProductId());
+                String productName = product != null ? product.getName() : "Unknown";
 
                 return new OrderItemView(
                         item.getOrderId(),
@@ -238,11 +221,22 @@ public class OrderPanel extends JPanel {
                         item.getPrice()
                 );
             }).toList();
+        }, itemViews -> {
+                    cartTable.setModel(TableGenerator.generateTable(itemViews, OrderItemView.class).getModel());
+                    event.finish(itemViews.size());
+                },
+                e -> showLoadError("the cart", e));
+    }
 
-            cartTable.setModel(TableGenerator.generateTable(itemViews, OrderItemView.class).getModel());
+    /**
+     * Logs and shows the error of a failed background load, which would otherwise leave a list or table empty.
+     *
+     * @param what what was being loaded, for the message
+     * @param e    the exception thrown by the load
+     * */
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    private void showLoadError(String what, Exception e) {
+        LOGGER.log(Level.WARNING, "OrderPanel:load " + what + " " + e.getMessage(), e);
+        JOptionPane.showMessageDialog(this, "Error loading " + what + ": " + e.getMessage());
     }
 }
\ No newline at end of file
@@ -0,0 +1,299 @@
+package Presentation;
+
+import DataAccessLayer.PageIndex;
+import Monitoring.TableRefreshEvent;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PagedTableModel is a virtual table model that loads its rows page by page while the {@link javax.swing.JTable}
+ * scrolls, instead of copying the whole table into a {@link javax.swing.table.DefaultTableModel}.
+ * <p>
+ * A reload first fetches the first page and shows it right away, then loads the {@link PageIndex}
+ * (the row count and the keyset cursor of every page) so the scroll bar covers the whole table.
+ * When the table asks for a row whose page is not in memory, the cell is shown empty and the page is
+ * fetched in the background with one keyset query; at most {@code maxPages} pages are kept, the least
+ * recently used being dropped first. Cells are read through the class's cached {@link ColumnAccessor},
+ * so the memory and time used do not depend on the size of the table.
+ * <p>
+ * Later reloads extend the index from its last page instead of rebuilding it, so a refresh after rows were
+ * added reads only the new rows; after rows were deleted, {@link #rebuild()} reads the whole index again.
+ * <p>
+ * A failed load is logged and passed to the model's error handler, at most once per reload, so a
+ * table whose pages keep failing while it scrolls does not open one dialog per page.
+ * <p>
+ * All methods must be called on the Event Dispatch Thread.
+ *
+ * @param <T> the type of the displayed objects
+ * */
+
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    private static final Logger LOGGER = Logger.getLogger(PagedTableModel.class.getName());
+
+    /**
+     * Loads the page index of the displayed query, extending {@code previous} if it is not {@code null}.
+     * */
+
+    @FunctionalInterface
+    public interface IndexLoader {
+        PageIndex load(int pageSize, PageIndex previous) throws Exception;
+    }
+
+    /**
+     * Loads the rows of one page, given the cursor of the page.
+     *
+     * @param <T> the row type
+     * */
+
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        List<T> load(int afterId, int limit) throws Exception;
+    }
+
+    private final ColumnAccessor<T> columns;
+    private final String table;
+    private final int pageSize;
+    private final IndexLoader indexLoader;
+    private final PageLoader<T> pageLoader;
+    private final BusyIndicator busy;
+    private final Consumer<? super Exception> onError;
+    private final AsyncExecutor async = AsyncExecutor.shared();
+    private final Object indexKey = new Object();
+
+    private final Map<Integer, List<T>> pages;
+    private final Set<Integer> loading = new HashSet<>();
+    private PageIndex index;
+    private int rowCount;
+    private int generation;
+    private boolean errorReported;
+
+    /**
+     * Constructs an empty model; call {@link #reload()} to load the data.
+     *
+     * @param clazz       the class of the displayed objects; its columns come from {@link ColumnAccessor}
+     * @param pageSize    the number of rows fetched per query
+     * @param maxPages    the maximum number of pages kept in memory
+     * @param indexLoader loads the page index
+     * @param pageLoader  loads one page
+     * @param busy        the indicator shown while pages are loading
+     * @param onError     shows the error of a failed load to the user, on the Event Dispatch Thread
+     * */
+
+    public PagedTableModel(Class<T> clazz, int pageSize, int maxPages, IndexLoader indexLoader,
+                           PageLoader<T> pageLoader, BusyIndicator busy, Consumer<? super Exception> onError) {
+        if (pageSize <= 0 || maxPages <= 0) {
+            throw new IllegalArgumentException("Page size and page count must be greater than 0.");
+        }
+        this.pageSize = pageSize;
+        this.indexLoader = indexLoader;
+        this.pageLoader = pageLoader;
+        this.busy = busy;
+        this.onError = onError;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxPages;
+            }
+        };
+        this.columns = ColumnAccessor.of(clazz);
+        this.table = clazz.getSimpleName();
+    }
+
+    /**
+     * Loads the data again. The first load fetches the first page, then the page index. Later reloads,
+     * e.g. after rows were added, extend the page index with the rows after its last page and keep showing
+     * the loaded pages; only the pages from the previous last page on are dropped and refetched as they are
+     * displayed, so the scroll position is kept. Every load is recorded as a {@link TableRefreshEvent}.
+     * */
+
+    public void reload() {
+        int reloadGeneration = ++generation;
+        loading.clear();
+        errorReported = false;
+        if (index != null) {
+            loadIndex(reloadGeneration, index, Math.max(index.pageCount() - 1, 0));
+            return;
+        }
+        loadFirstPage(reloadGeneration);
+    }
+
+    /**
+     * Loads the data again with a new page index, e.g. after rows were deleted. The loaded pages are kept
+     * on screen until the index arrives, then dropped and refetched as they are displayed.
+     * */
+
+    public void rebuild() {
+        int reloadGeneration = ++generation;
+        loading.clear();
+        errorReported = false;
+        if (index != null) {
+            loadIndex(reloadGeneration, null, 0);
+            return;
+        }
+        loadFirstPage(reloadGeneration);
+    }
+
+    /**
+     * Fetches the first page and shows it, then loads the page index if there are more rows.
+     * */
+
+    private void loadFirstPage(int reloadGeneration) {
+        TableRefreshEvent event = TableRefreshEvent.begin(table, "reload");
+        async.runLatest(this, busy, () -> pageLoader.load(0, pageSize), first -> {
+            if (reloadGeneration != generation || first == null) {
+                return;
+            }
+            pages.clear();
+            pages.put(0, first);
+            index = null;
+            rowCount = first.size();
+            fireTableDataChanged();
+            event.finish(first.size());
+            if (first.size() == pageSize) {
+                loadIndex(reloadGeneration, null, Integer.MAX_VALUE);
+            }
+        }, e -> failed("reload", e));
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.getColumnName(column);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns.getColumnClass(column);
+    }
+
+    /**
+     * Returns the cell value, or {@code null} while the row's page is being loaded.
+     * */
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = row % pageSize;
+        if (offset >= rows.size()) {
+            return null;
+        }
+        return columns.getValue(rows.get(offset), column);
+    }
+
+    /**
+     * Returns the object displayed in a row, or {@code null} if its page is not loaded.
+     *
+     * @param row the row index
+     * @return the row object, or {@code null}
+     * */
+
+    public T getRow(int row) {
+        List<T> rows = pages.get(row / pageSize);
+        int offset = row % pageSize;
+        return rows != null && offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    /**
+     * Loads the page index in the background, extending {@code previous} if it is not {@code null}, and
+     * resizes the table to the new row count. The loaded pages before {@code validPages} still match the new
+     * index and are kept; the others were read with the previous index and are dropped.
+     * */
+
+    private void loadIndex(int reloadGeneration, PageIndex previous, int validPages) {
+        TableRefreshEvent event = TableRefreshEvent.begin(table, "index");
+        async.runLatest(indexKey, busy, () -> indexLoader.load(pageSize, previous), loaded -> {
+            if (reloadGeneration != generation || loaded == null) {
+                return;
+            }
+            index = loaded;
+            int previousRows = rowCount;
+            rowCount = loaded.rowCount();
+            pages.keySet().removeIf(page -> page >= validPages);
+            loading.clear();
+            if (validPages == 0) {
+                fireTableDataChanged();
+            } else {
+                int commonRows = Math.min(previousRows, rowCount);
+                int validRows = (int) Math.min((long) validPages * pageSize, commonRows);
+                if (validRows < commonRows) {
+                    fireTableRowsUpdated(validRows, commonRows - 1);
+                }
+                if (rowCount > previousRows) {
+                    fireTableRowsInserted(previousRows, rowCount - 1);
+                } else if (rowCount < previousRows) {
+                    fireTableRowsDeleted(rowCount, previousRows - 1);
+                }
+            }
+            event.finish(rowCount);
+        }, e -> failed("index", e));
+    }
+
+    /**
+     * Fetches a page in the background unless it is already being fetched.
+     * */
+
+    private void requestPage(int page) {
+        if (index == null && page > 0 || !loading.add(page)) {
+            return;
+        }
+        PageIndex requestIndex = index;
+        int cursor = requestIndex != null ? requestIndex.cursor(page) : 0;
+        int requestGeneration = generation;
+        TableRefreshEvent event = TableRefreshEvent.begin(table, "page");
+        async.run(busy, () -> pageLoader.load(cursor, pageSize), rows -> {
+            if (requestGeneration != generation || requestIndex != index) {
+                return;
+            }
+            loading.remove(page);
+            if (rows == null) {
+                return;
+            }
+            pages.put(page, rows);
+            int first = page * pageSize;
+            int last = Math.min(first + pageSize, rowCount) - 1;
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+            event.finish(rows.size());
+        }, e -> {
+            loading.remove(page);
+            failed("page " + page, e);
+        });
+    }
+
+    /**
+     * Logs a failed load and reports it to the error handler, unless an error was already reported
+     * since the last reload.
+     * */
+
+    private void failed(String load, Exception e) {
+        LOGGER.log(Level.WARNING, "PagedTableModel:" + table + " " + load + " " + e.getMessage(), e);
+        if (!errorReported) {
+            errorReported = true;
+            onError.accept(e);
+        }
+    }
+}
@@ -2,10 +2,12 @@ package Presentation;
 
 import BusinessLogicLayer.ProductBLL;
 import Model.Product;
+import Monitoring.TableRefreshEvent;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * ProductPanel is a GUI component responsible for managing product-related operations.
@@ -13,11 +15,17 @@ import java.util.List;
  * */
 
 public class ProductPanel extends JPanel {
+
+    private static final Logger LOGGER = Logger.getLogger(ProductPanel.class.getName());
+
     private JTable table;
     private final JButton addBtn = new JButton("Add");
     private final JButton editBtn = new JButton("Edit");
     private final JButton deleteBtn = new JButton("Delete");
     private final JButton refreshBtn = new JButton("Refresh");
+    private final BusyIndicator busy = new BusyIndicator(this);
+    private final AsyncExecutor async = AsyncExecutor.shared();
+    private final EntityTableModel<Product> productModel = new EntityTableModel<>(Product.class, Product::getId);
 
     /**
      * Constructs the ProductPanel and initializes the UI layout and buttons.
@@ -31,14 +39,16 @@ public class ProductPanel extends JPanel {
         topPanel.add(editBtn);
         topPanel.add(deleteBtn);
         topPanel.add(refreshBtn);
+        topPanel.add(busy);
 
-        table = new JTable();
+        table = new JTable(productModel);
         add(topPanel, BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
     }
 
     /**
      * Sets up the event listeners for the buttons and initializes the product table.
+     * The database calls run in the background through the {@link AsyncExecutor}.
      *
      * @param productBLL the business logic layer object used to perform product operations.
      * */
@@ -70,8 +80,7 @@ public class ProductPanel extends JPanel {
                     }
 
                     Product p = new Product(nameVal, priceNum, stockNum);
-                    productBLL.insertProduct(p);
-                    refreshTable(productBLL);
+                    async.run(busy, () -> productBLL.insertProduct(p), productModel::apply, this::showError);
 
                 } catch (Exception ex) {
                     JOptionPane.showMessageDialog(this,
@@ -102,8 +111,7 @@ public class ProductPanel extends JPanel {
                     try {
                         Product updated = new Product(id, name.getText(),
                                 Double.parseDouble(price.getText()), Integer.parseInt(stock.getText()));
-                        productBLL.updateProduct(updated);
-                        refreshTable(productBLL);
+                        async.run(busy, () -> productBLL.updateProduct(updated), productModel::apply, this::showError);
                     } catch (Exception ex) {
                         JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
                     }
@@ -115,8 +123,7 @@ public class ProductPanel extends JPanel {
             int row = table.getSelectedRow();
             if (row >= 0) {
                 int id = (int) table.getValueAt(row, 0);
-                productBLL.deleteProduct(id);
-                refreshTable(productBLL);
+                async.run(busy, () -> productBLL.deleteProduct(id), productModel::apply, this::showError);
             }
         });
 
@@ -125,16 +132,38 @@ public class ProductPanel extends JPanel {
 
     /**
      * Refreshes the table with the current list of products from the database.
+     * The query runs in the background; a newer refresh cancels one still in progress.
      *
      * @param productBLL the business logic object used to fetch product data.
      * */
 
     private void refreshTable(ProductBLL productBLL) {
-        try {
-            List<Product> products = productBLL.findAllProducts();
-            table.setModel(TableGenerator.generateTable(products, Product.class).getModel());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        TableRefreshEvent event = TableRefreshEvent.begin("Product", "reload");
+        async.runLatest(this, busy, productBLL::findAllProducts, rows -> {
+                    productModel.setRows(rows);
+                    event.finish(rows.size());
+                },
+                this::showLoadError);
+    }
+
+    /**
+     * Shows the error of a failed background operation.
+     *
+     * @param e the exception thrown by the operation
+     * */
+
+    private void showError(Exception e) {
+        JOptionPane.showMessageDialog(this, "Error: " + e.getMessage());
+    }
+
+    /**
+     * Logs and shows the error of a failed background load, which would otherwise leave the table empty.
+     *
+     * @param e the exception thrown by the load
+     * */
+
+    private void showLoadError(Exception e) {
+        LOGGER.log(Level.WARNING, "ProductPanel:load " + e.getMessage(), e);
+        JOptionPane.showMessageDialog(this, "Error loading products: " + e.getMessage());
     }
 }
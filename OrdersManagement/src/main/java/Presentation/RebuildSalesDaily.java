@@ -0,0 +1,49 @@
+package Presentation;
+
+import BusinessLogicLayer.ReportingBLL;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Command-line entry point that rebuilds the {@code sales_daily} rollup from the order tables.
+ * <p>
+ * Usage: {@code RebuildSalesDaily [from] [to]} with dates as {@code yyyy-MM-dd}; the range is half-open
+ * and without arguments the whole rollup is rebuilt.
+ * */
+
+public class RebuildSalesDaily {
+
+    /**
+     * Parses the optional range, rebuilds the rollup and prints the number of rows written.
+     *
+     * @param args the optional start and end dates
+     * */
+
+    public static void main(String[] args) {
+        if (args.length > 2) {
+            System.err.println("Usage: RebuildSalesDaily [from yyyy-MM-dd] [to yyyy-MM-dd]");
+            System.exit(2);
+        }
+        try {
+            Date from = args.length > 0 ? parseDate(args[0]) : null;
+            Date to = args.length > 1 ? parseDate(args[1]) : null;
+            int rows = new ReportingBLL().rebuildSalesRollup(from, to);
+            System.out.println("sales_daily rebuilt: " + rows + " rows written.");
+        } catch (ParseException e) {
+            System.err.println("Dates must be written as yyyy-MM-dd.");
+            System.exit(2);
+        } catch (RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static Date parseDate(String text) throws ParseException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setLenient(false);
+        return dateFormat.parse(text);
+    }
+}
@@ -0,0 +1,16 @@
+-- Indexes used by the sales_daily rebuild (SalesDailyDAO) and the date-range exports (ExportBLL).
+-- The reports themselves read sales_daily through its primary key (see sales-daily.sql).
+-- Apply once to an existing schema:  mysql -u root -p tp < reporting-indexes.sql
+
+-- Date range scan of the orders for a ranged rebuild; clientId and totalAmount make it covering
+-- for ad-hoc per-client and per-day queries over the orders themselves.
+CREATE INDEX idx_orders_orderData ON orders (orderData, clientId, totalAmount);
+
+-- Items of each order in the range; covering for the rebuild, which never reads the item rows.
+CREATE INDEX idx_orderitem_order_product ON orderitem (orderId, productId, quantity, price);
+-- It leads with orderId, so it also serves the orderitem_ibfk_1 foreign key and the dump's single-column
+-- KEY orderId is redundant: drop it so every order line insert maintains one index less.
+ALTER TABLE orderitem DROP INDEX orderId;
+
+-- Date range scan of the bill log for exports.
+CREATE INDEX idx_log_orderData ON log (orderData);
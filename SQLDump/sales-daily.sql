@@ -0,0 +1,21 @@
+-- Daily sales rollup read by the sales reports (ReportingDAO) and maintained by SalesDailyDAO:
+-- order placement adds to it and order deletion subtracts from it in the same transaction.
+-- Apply once to an existing schema:  mysql -u root -p tp < sales-daily.sql
+-- To recompute it later (for example after deleting clients or products, whose orders are removed
+-- by cascade without being subtracted), run the rebuild command:
+--   java -cp <classpath> Presentation.RebuildSalesDaily [from yyyy-MM-dd] [to yyyy-MM-dd]
+
+CREATE TABLE `sales_daily` (
+  `day` date NOT NULL,
+  `productId` int NOT NULL,
+  `clientId` int NOT NULL,
+  `units` bigint NOT NULL,
+  `revenue` double NOT NULL,
+  PRIMARY KEY (`day`,`productId`,`clientId`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Initial fill from the existing orders.
+INSERT INTO sales_daily (day, productId, clientId, units, revenue)
+SELECT o.orderData, oi.productId, o.clientId, SUM(oi.quantity), SUM(oi.quantity * oi.price)
+FROM orders o JOIN orderitem oi ON oi.orderId = o.id
+GROUP BY o.orderData, oi.productId, o.clientId;
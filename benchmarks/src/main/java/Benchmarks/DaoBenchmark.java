@@ -0,0 +1,144 @@
+package Benchmarks;
+
+import DataAccessLayer.ClientDAO;
+import DataAccessLayer.OrderItemDAO;
+import Model.Client;
+import Model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end DAO calls against the embedded H2 database: single-row reads with and without the entity
+ * cache, and inserting an order's lines one by one versus with one JDBC batch. Writes are rolled back at
+ * the end of each call, so the tables keep their size; the rollback is part of the measured time.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.profile=h2")
+public class DaoBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final int PRODUCTS = 200;
+    private static final int ITEMS_PER_ORDER = 5;
+
+    @Param({"10", "100"})
+    public int lines;
+
+    private final ClientDAO clientDAO = new ClientDAO();
+    private final OrderItemDAO orderItemDAO = new OrderItemDAO();
+    private Connection readConnection;
+    private Connection writeConnection;
+    private List<OrderItem> order;
+    private int next;
+
+    /**
+     * Fills the embedded database, once per fork, and borrows the connections from the pool.
+     *
+     * @throws SQLException if the database cannot be filled or reached
+     */
+
+    @Setup
+    public void setUp() throws SQLException {
+        EmbeddedDatabase database = new EmbeddedDatabase();
+        database.seed(CLIENTS, PRODUCTS, ITEMS_PER_ORDER);
+        readConnection = database.connect();
+        writeConnection = database.connect();
+        writeConnection.setAutoCommit(false);
+        order = SyntheticData.orderItems(lines, 1, PRODUCTS);
+    }
+
+    /**
+     * Returns the connections to the pool.
+     *
+     * @throws SQLException if closing fails
+     */
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        readConnection.close();
+        writeConnection.close();
+    }
+
+    /**
+     * Reads one order line by ID (no cache): prepare, execute, map.
+     *
+     * @return the order line
+     * @throws SQLException if the query fails
+     */
+
+    @Benchmark
+    public OrderItem findOrderItemById() throws SQLException {
+        return orderItemDAO.findById(readConnection, nextId(CLIENTS * ITEMS_PER_ORDER));
+    }
+
+    /**
+     * Reads one client by ID through the client cache; after warm-up every call is a cache hit.
+     *
+     * @return the client
+     * @throws SQLException if the query fails
+     */
+
+    @Benchmark
+    public Client findClientByIdCached() throws SQLException {
+        return clientDAO.findById(readConnection, nextId(CLIENTS));
+    }
+
+    /**
+     * Inserts the lines of an order with one statement execution per line.
+     *
+     * @return the inserted lines
+     * @throws SQLException if an insert fails
+     */
+
+    @Benchmark
+    public List<OrderItem> insertOrderItemsOneByOne() throws SQLException {
+        try {
+            for (OrderItem item : order) {
+                orderItemDAO.insert(writeConnection, item);
+            }
+            return order;
+        } finally {
+            writeConnection.rollback();
+        }
+    }
+
+    /**
+     * Inserts the lines of an order with one JDBC batch.
+     *
+     * @return the inserted lines
+     * @throws SQLException if the batch fails
+     */
+
+    @Benchmark
+    public List<OrderItem> insertOrderItemsBatched() throws SQLException {
+        try {
+            return orderItemDAO.insertAll(writeConnection, order);
+        } finally {
+            writeConnection.rollback();
+        }
+    }
+
+    private int nextId(int count) {
+        next = next % count + 1;
+        return next;
+    }
+}
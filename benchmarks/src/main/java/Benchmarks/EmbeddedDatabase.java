@@ -0,0 +1,101 @@
+package Benchmarks;
+
+import Connection.ConnectionFactory;
+import Connection.DatabaseConfig;
+import DataAccessLayer.ClientDAO;
+import DataAccessLayer.OrderItemDAO;
+import DataAccessLayer.OrdersDAO;
+import DataAccessLayer.ProductDAO;
+import Model.Orders;
+import Model.Product;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The database of the DAO benchmarks, reached through the application's {@link ConnectionFactory}, so the
+ * benchmarks go through the same {@link DatabaseConfig}, connection pool and statement tracer as the
+ * application. The benchmarks fork with {@code -Ddb.profile=h2}: the in-memory H2 database created from the
+ * {@code SQLDump/} scripts, which are looked up relative to the working directory (run from the project root).
+ * Pool and trace settings can be compared by appending e.g. {@code -jvmArgsAppend -Dpool.maxSize=2}.
+ * <p>
+ * The in-memory database lives as long as the fork, so it is filled at most once per JVM.
+ */
+
+final class EmbeddedDatabase {
+
+    private static boolean seeded;
+
+    /**
+     * Checks that the benchmarks run against the embedded database.
+     *
+     * @throws IllegalStateException if the profile in use is not {@code h2}
+     */
+
+    EmbeddedDatabase() {
+        String profile = ConnectionFactory.getConfig().getProfile();
+        if (!DatabaseConfig.PROFILE_H2.equals(profile)) {
+            throw new IllegalStateException("Benchmarks need -Ddb.profile=h2, not " + profile);
+        }
+    }
+
+    /**
+     * Borrows a connection from the application's pool.
+     *
+     * @return the connection, in auto-commit mode; closing it returns it to the pool
+     * @throws SQLException if no connection can be obtained
+     */
+
+    Connection connect() throws SQLException {
+        Connection connection = ConnectionFactory.getConnection();
+        if (connection == null) {
+            throw new SQLException("Cannot connect to " + ConnectionFactory.getConfig().getUrl());
+        }
+        return connection;
+    }
+
+    /**
+     * Inserts {@code clients} clients, {@code products} products and, for each client, one order with
+     * {@code itemsPerOrder} lines, after the rows of the dump. Does nothing if this JVM already filled the
+     * database.
+     *
+     * @throws SQLException if the data cannot be inserted
+     */
+
+    void seed(int clients, int products, int itemsPerOrder) throws SQLException {
+        synchronized (EmbeddedDatabase.class) {
+            if (seeded) {
+                return;
+            }
+            try (Connection connection = connect()) {
+                connection.setAutoCommit(false);
+                try {
+                    new ClientDAO().insertAll(connection, SyntheticData.clients(clients));
+
+                    List<Product> productList = new ArrayList<>(products);
+                    for (int i = 0; i < products; i++) {
+                        productList.add(new Product("Product " + i, 1.0 + i % 100, 1_000_000));
+                    }
+                    new ProductDAO().insertAll(connection, productList);
+
+                    OrdersDAO ordersDAO = new OrdersDAO();
+                    OrderItemDAO orderItemDAO = new OrderItemDAO();
+                    for (int clientId = 1; clientId <= clients; clientId++) {
+                        Orders order = ordersDAO.insert(connection, SyntheticData.order(clientId));
+                        orderItemDAO.insertAll(connection,
+                                SyntheticData.orderItems(itemsPerOrder, order.getId(), products));
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+            seeded = true;
+        }
+    }
+}
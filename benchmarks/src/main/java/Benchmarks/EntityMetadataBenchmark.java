@@ -0,0 +1,134 @@
+package Benchmarks;
+
+import DataAccessLayer.EntityMetadata;
+import Model.Client;
+import Model.Orders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The statement side of {@code AbstractDAO.insert} and {@code update}: looking up the precomputed SQL in
+ * {@link EntityMetadata} and binding an entity's fields to a prepared statement of the embedded database.
+ * Nothing is executed, so the numbers are the per-row cost paid by the DAO before the driver takes over.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.profile=h2")
+public class EntityMetadataBenchmark {
+
+    private Connection connection;
+    private PreparedStatement clientInsert;
+    private PreparedStatement clientUpdate;
+    private PreparedStatement ordersInsert;
+    private final Client client = new Client(1, "Client 1", "Street 1, Cluj-Napoca", "client1@example.com", "0700000001");
+    private final Orders order = SyntheticData.order(1);
+
+    /**
+     * Borrows a connection of the embedded database and prepares the statements once.
+     *
+     * @throws SQLException if the database cannot be reached
+     */
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = new EmbeddedDatabase().connect();
+        clientInsert = connection.prepareStatement(EntityMetadata.of(Client.class).getInsertSql());
+        clientUpdate = connection.prepareStatement(EntityMetadata.of(Client.class).getUpdateSql());
+        ordersInsert = connection.prepareStatement(EntityMetadata.of(Orders.class).getInsertSql());
+    }
+
+    /**
+     * Closes the statements' connection, returning it to the pool.
+     *
+     * @throws SQLException if closing fails
+     */
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Looks up the cached insert SQL of a class, as every insert does.
+     *
+     * @return the SQL
+     */
+
+    @Benchmark
+    public String insertSql() {
+        return EntityMetadata.of(Client.class).getInsertSql();
+    }
+
+    /**
+     * Binds a client's fields for an insert.
+     *
+     * @return the statement
+     * @throws SQLException if a parameter cannot be set
+     */
+
+    @Benchmark
+    public PreparedStatement bindClientInsert() throws SQLException {
+        EntityMetadata.of(Client.class).bindInsert(clientInsert, client);
+        return clientInsert;
+    }
+
+    /**
+     * Binds a client's fields and ID for an update.
+     *
+     * @return the statement
+     * @throws SQLException if a parameter cannot be set
+     */
+
+    @Benchmark
+    public PreparedStatement bindClientUpdate() throws SQLException {
+        EntityMetadata.of(Client.class).bindUpdate(clientUpdate, client);
+        return clientUpdate;
+    }
+
+    /**
+     * Binds an order's fields, including its date, for an insert.
+     *
+     * @return the statement
+     * @throws SQLException if a parameter cannot be set
+     */
+
+    @Benchmark
+    public PreparedStatement bindOrdersInsert() throws SQLException {
+        EntityMetadata.of(Orders.class).bindInsert(ordersInsert, order);
+        return ordersInsert;
+    }
+
+    /**
+     * Prepares, binds and closes a client insert statement: the full statement cost of a single insert.
+     *
+     * @return the statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+
+    @Benchmark
+    public PreparedStatement prepareAndBindClientInsert() throws SQLException {
+        EntityMetadata<Client> metadata = EntityMetadata.of(Client.class);
+        try (PreparedStatement statement = connection.prepareStatement(metadata.getInsertSql())) {
+            metadata.bindInsert(statement, client);
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package Benchmarks;
+
+import BusinessLogicLayer.OrderPlacementService;
+import Model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The order total computed for every placed order, {@link OrderPlacementService#computeTotal(List)}
+ * (formerly computed inline by the order panel), over carts of different sizes.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({"5", "100", "1000"})
+    public int items;
+
+    private List<OrderItem> cart;
+
+    /**
+     * Creates the cart.
+     */
+
+    @Setup
+    public void setUp() {
+        cart = SyntheticData.orderItems(items, 0, 50);
+    }
+
+    /**
+     * Computes the cart total.
+     *
+     * @return the total
+     */
+
+    @Benchmark
+    public double computeTotal() {
+        return OrderPlacementService.computeTotal(cart);
+    }
+}
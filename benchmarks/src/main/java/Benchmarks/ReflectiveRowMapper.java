@@ -0,0 +1,85 @@
+package Benchmarks;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The reflective row mapping that {@code AbstractDAO.createObjects} used before {@code RowMapper}, kept as
+ * the baseline of {@link RowMapperBenchmark}: for every row it looks up the no-arg constructor, scans the
+ * declared fields, reads each column by name and calls the setter found through a new
+ * {@link PropertyDescriptor}.
+ */
+
+final class ReflectiveRowMapper {
+
+    private ReflectiveRowMapper() {
+    }
+
+    /**
+     * Maps every remaining row of {@code resultSet} to a new {@code type} instance.
+     *
+     * @param type      the class of the mapped objects
+     * @param resultSet the rows to map
+     * @param <T>       the type of the mapped objects
+     * @return the mapped objects
+     * @throws IllegalArgumentException if {@code type} has no no-arg constructor
+     * @throws IllegalStateException    if a row cannot be mapped
+     */
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> mapAll(Class<T> type, ResultSet resultSet) {
+        List<T> list = new ArrayList<>();
+        Constructor<T> ctor = null;
+
+        for (Constructor<?> c : type.getDeclaredConstructors()) {
+            if (c.getParameterCount() == 0) {
+                ctor = (Constructor<T>) c;
+                break;
+            }
+        }
+
+        if (ctor == null) {
+            throw new IllegalArgumentException("No no-arg constructor found for class " + type.getName());
+        }
+
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            List<String> columnNames = new ArrayList<>();
+            for (int i = 1; i <= columnCount; i++) {
+                columnNames.add(metaData.getColumnName(i));
+            }
+
+            while (resultSet.next()) {
+                ctor.setAccessible(true);
+                T instance = ctor.newInstance();
+
+                for (Field field : type.getDeclaredFields()) {
+                    String fieldName = field.getName();
+                    if (!columnNames.contains(fieldName)) {
+                        continue;
+                    }
+
+                    Object value = resultSet.getObject(fieldName);
+                    PropertyDescriptor propertyDescriptor = new PropertyDescriptor(fieldName, type);
+                    Method method = propertyDescriptor.getWriteMethod();
+                    if (method != null) {
+                        method.invoke(instance, value);
+                    }
+                }
+
+                list.add(instance);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot map " + type.getName() + ": " + e.getMessage(), e);
+        }
+
+        return list;
+    }
+}
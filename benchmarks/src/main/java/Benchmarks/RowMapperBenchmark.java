@@ -0,0 +1,105 @@
+package Benchmarks;
+
+import DataAccessLayer.RowMapper;
+import Model.Client;
+import Model.Orders;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mapping as done by every {@code AbstractDAO} read: {@link RowMapper#of} (the cached mapper lookup by
+ * result set shape) followed by {@link RowMapper#mapAll} over a synthetic in-memory result set, so the
+ * numbers contain no database or network time. The {@code *Reflective} benchmarks map the same rows with the
+ * reflective mapping used before {@link RowMapper} ({@link ReflectiveRowMapper}), as the baseline.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private SimpleResultSet clients;
+    private SimpleResultSet orders;
+
+    /**
+     * Builds the in-memory result sets.
+     */
+
+    @Setup
+    public void setUp() {
+        clients = SyntheticData.clientResultSet(rows);
+        orders = SyntheticData.ordersResultSet(rows);
+    }
+
+    /**
+     * Maps {@code rows} clients (one int and four string columns).
+     *
+     * @return the clients
+     * @throws SQLException if the result set cannot be read
+     */
+
+    @Benchmark
+    public List<Client> mapClients() throws SQLException {
+        clients.beforeFirst();
+        return RowMapper.of(Client.class, clients).mapAll(clients);
+    }
+
+    /**
+     * Maps {@code rows} orders (int, int, date and double columns).
+     *
+     * @return the orders
+     * @throws SQLException if the result set cannot be read
+     */
+
+    @Benchmark
+    public List<Orders> mapOrders() throws SQLException {
+        orders.beforeFirst();
+        return RowMapper.of(Orders.class, orders).mapAll(orders);
+    }
+
+    /**
+     * Maps {@code rows} clients with the reflective baseline mapper.
+     *
+     * @return the clients
+     * @throws SQLException if the result set cannot be rewound
+     */
+
+    @Benchmark
+    public List<Client> mapClientsReflective() throws SQLException {
+        clients.beforeFirst();
+        return ReflectiveRowMapper.mapAll(Client.class, clients);
+    }
+
+    /**
+     * Maps {@code rows} orders with the reflective baseline mapper.
+     *
+     * @return the orders
+     * @throws SQLException if the result set cannot be rewound
+     */
+
+    @Benchmark
+    public List<Orders> mapOrdersReflective() throws SQLException {
+        orders.beforeFirst();
+        return ReflectiveRowMapper.mapAll(Orders.class, orders);
+    }
+}
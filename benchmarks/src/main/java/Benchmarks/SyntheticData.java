@@ -0,0 +1,93 @@
+package Benchmarks;
+
+import Model.Client;
+import Model.OrderItem;
+import Model.Orders;
+import org.h2.tools.SimpleResultSet;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic test data for the benchmarks: model objects and in-memory result sets shaped like the
+ * rows the DAOs read from MySQL. The result sets are H2 {@link SimpleResultSet}s, which hold their rows in
+ * memory and can be rewound with {@code beforeFirst()}, so row mapping is measured without any database.
+ */
+
+final class SyntheticData {
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Creates {@code count} clients without IDs and with unique e-mail addresses.
+     */
+
+    static List<Client> clients(int count) {
+        List<Client> clients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            clients.add(new Client("Client " + i, "Street " + i + ", Cluj-Napoca",
+                    "client" + i + "@example.com", "07" + String.format("%08d", i)));
+        }
+        return clients;
+    }
+
+    /**
+     * Creates {@code count} order lines of the given order, spread over {@code productCount} products.
+     */
+
+    static List<OrderItem> orderItems(int count, int orderId, int productCount) {
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new OrderItem(orderId, 1 + i % productCount, 1 + i % 5, 9.99 + i % 100));
+        }
+        return items;
+    }
+
+    /**
+     * Creates a rewindable result set with the columns of {@code SELECT id, name, address, email, phone FROM Client}.
+     */
+
+    static SimpleResultSet clientResultSet(int rows) {
+        SimpleResultSet resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("id", Types.INTEGER, 10, 0);
+        resultSet.addColumn("name", Types.VARCHAR, 100, 0);
+        resultSet.addColumn("address", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("email", Types.VARCHAR, 100, 0);
+        resultSet.addColumn("phone", Types.VARCHAR, 20, 0);
+        for (int i = 1; i <= rows; i++) {
+            resultSet.addRow(i, "Client " + i, "Street " + i + ", Cluj-Napoca", "client" + i + "@example.com",
+                    "07" + String.format("%08d", i));
+        }
+        return resultSet;
+    }
+
+    /**
+     * Creates a rewindable result set with the columns of {@code SELECT id, clientId, orderData, totalAmount FROM Orders}.
+     */
+
+    static SimpleResultSet ordersResultSet(int rows) {
+        SimpleResultSet resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("id", Types.INTEGER, 10, 0);
+        resultSet.addColumn("clientId", Types.INTEGER, 10, 0);
+        resultSet.addColumn("orderData", Types.DATE, 10, 0);
+        resultSet.addColumn("totalAmount", Types.DOUBLE, 17, 0);
+        long day = 24L * 60 * 60 * 1000;
+        long start = java.sql.Date.valueOf("2025-01-01").getTime();
+        for (int i = 1; i <= rows; i++) {
+            resultSet.addRow(i, 1 + i % 1000, new java.sql.Date(start + (i % 365) * day), 10.0 * (i % 500));
+        }
+        return resultSet;
+    }
+
+    /**
+     * Creates an order header for the given client.
+     */
+
+    static Orders order(int clientId) {
+        return new Orders(clientId, new java.util.Date(), 100.0);
+    }
+}
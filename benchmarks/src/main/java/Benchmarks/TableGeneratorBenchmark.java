@@ -0,0 +1,58 @@
+package Benchmarks;
+
+import Model.Client;
+import Presentation.TableGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.JTable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TableGenerator#generateTable}: reading every cell through the cached column accessors and filling
+ * a {@code DefaultTableModel}. Runs headless; the table is built but never shown.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TableGeneratorBenchmark {
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private List<Client> clients;
+
+    /**
+     * Creates the clients to show.
+     */
+
+    @Setup
+    public void setUp() {
+        clients = SyntheticData.clients(rows);
+    }
+
+    /**
+     * Builds a client table.
+     *
+     * @return the table
+     */
+
+    @Benchmark
+    public JTable generateClientTable() {
+        return TableGenerator.generateTable(clients, Client.class);
+    }
+}